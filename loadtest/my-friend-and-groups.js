@@ -0,0 +1,106 @@
+// Teste de carga (k6) dos endpoints /draws/my-friend e /groups.
+//
+//   k6 run -e BASE_URL=http://localhost:8080 -e VUS=2000 --summary-export=padrao.json loadtest/my-friend-and-groups.js
+//
+// Rode uma vez com a aplicação no modo padrão e outra com o profile virtual-threads, com o mesmo -Xmx,
+// e compare http_reqs, http_req_duration e http_req_failed.
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const VUS = parseInt(__ENV.VUS || '1000');
+const PARTICIPANTS = parseInt(__ENV.PARTICIPANTS || '50');
+const DURATION = __ENV.DURATION || '2m';
+const PASSWORD = 'senha-de-carga';
+
+export const options = {
+    scenarios: {
+        myFriend: {
+            executor: 'ramping-vus',
+            exec: 'myFriend',
+            stages: [
+                { duration: '30s', target: VUS },
+                { duration: DURATION, target: VUS },
+                { duration: '10s', target: 0 },
+            ],
+        },
+        groups: {
+            executor: 'ramping-vus',
+            exec: 'groups',
+            stages: [
+                { duration: '30s', target: Math.ceil(VUS / 4) },
+                { duration: DURATION, target: Math.ceil(VUS / 4) },
+                { duration: '10s', target: 0 },
+            ],
+        },
+    },
+    thresholds: {
+        http_req_failed: ['rate<0.01'],
+    },
+};
+
+function json(body, token) {
+    const headers = { 'Content-Type': 'application/json' };
+    if (token) {
+        headers.Authorization = `Bearer ${token}`;
+    }
+    return { headers };
+}
+
+// O token devolvido pelo registro não serve para autenticar, então cada usuário faz login em seguida
+function register(index, runId) {
+    const email = `carga-${runId}-${index}@example.com`;
+    const registered = http.post(`${BASE_URL}/auth/register`, JSON.stringify({
+        username: `carga-${runId}-${index}`,
+        email: email,
+        password: PASSWORD,
+        wishItem: `Presente ${index}`,
+    }), json());
+    check(registered, { 'registro ok': (r) => r.status === 201 });
+
+    const login = http.post(`${BASE_URL}/auth/login`, JSON.stringify({
+        email: email,
+        password: PASSWORD,
+    }), json());
+    check(login, { 'login ok': (r) => r.status === 200 });
+    return login.json();
+}
+
+// Cria os usuários, um grupo com todos eles e faz o sorteio; os tokens são reaproveitados pelos VUs
+export function setup() {
+    const runId = Date.now();
+    const users = [];
+    for (let i = 0; i < PARTICIPANTS; i++) {
+        users.push(register(i, runId));
+    }
+
+    const owner = users[0];
+    const created = http.post(`${BASE_URL}/groups`, JSON.stringify({
+        name: `Carga ${runId}`,
+        ownerId: owner.id,
+    }), json(null, owner.token));
+    check(created, { 'grupo criado': (r) => r.status === 200 });
+    const group = created.json();
+
+    const invite = http.post(`${BASE_URL}/groups/${group.id}/participants`, JSON.stringify({
+        userIds: users.map((user) => user.id),
+    }), json(null, owner.token));
+    check(invite, { 'participantes adicionados': (r) => r.status === 200 });
+
+    const draw = http.post(`${BASE_URL}/draws/create?groupId=${group.id}`, null, json(null, owner.token));
+    check(draw, { 'sorteio ok': (r) => r.status === 200 });
+
+    return { groupId: group.id, tokens: users.map((user) => user.token) };
+}
+
+export function myFriend(data) {
+    const token = data.tokens[__VU % data.tokens.length];
+    const res = http.get(`${BASE_URL}/draws/my-friend?groupId=${data.groupId}`, json(null, token));
+    check(res, { 'my-friend 200': (r) => r.status === 200 });
+}
+
+export function groups(data) {
+    const token = data.tokens[__VU % data.tokens.length];
+    const res = http.get(`${BASE_URL}/groups/page?size=50`, json(null, token));
+    check(res, { 'groups 200': (r) => r.status === 200 });
+}
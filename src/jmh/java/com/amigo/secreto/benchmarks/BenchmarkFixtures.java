@@ -0,0 +1,37 @@
+package com.amigo.secreto.benchmarks;
+
+import com.amigo.secreto.models.Group;
+import com.amigo.secreto.models.User;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.UUID;
+
+public final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() {
+    }
+
+    public static List<User> participants(int size) {
+        List<User> participants = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            User user = new User();
+            user.setId(new UUID(0x5ec7e70L, i));
+            user.setUsername("user" + i);
+            user.setEmail("user" + i + "@example.com");
+            user.setWishItem("item " + i);
+            participants.add(user);
+        }
+        return participants;
+    }
+
+    public static Group group(List<User> participants) {
+        Group group = new Group();
+        group.setId(UUID.randomUUID());
+        group.setName("Benchmark");
+        group.setOwnerId(participants.get(0).getId());
+        group.setParticipants(new LinkedHashSet<>(participants));
+        return group;
+    }
+}
@@ -0,0 +1,49 @@
+package com.amigo.secreto.mappers;
+
+import com.amigo.secreto.benchmarks.BenchmarkFixtures;
+import com.amigo.secreto.dtos.DrawResponseDTO;
+import com.amigo.secreto.models.Draw;
+import com.amigo.secreto.models.User;
+import com.amigo.secreto.services.pairing.RandomDerangementPairingEngine;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DrawMapperBenchmark {
+
+    @Param({"4", "100", "1000", "10000", "100000"})
+    private int participants;
+
+    private Draw draw;
+
+    @Setup
+    public void setUp() {
+        List<User> users = BenchmarkFixtures.participants(participants);
+        int[] receivers = new RandomDerangementPairingEngine().generate(participants);
+
+        Map<UUID, UUID> pairs = new HashMap<>();
+        for (int giver = 0; giver < participants; giver++) {
+            pairs.put(users.get(giver).getId(), users.get(receivers[giver]).getId());
+        }
+
+        draw = new Draw();
+        draw.setId(UUID.randomUUID());
+        draw.setGroup(BenchmarkFixtures.group(users));
+        draw.setPairs(pairs);
+    }
+
+    @Benchmark
+    public DrawResponseDTO toDrawResponseDTO() {
+        return DrawMapper.toDrawResponseDTO(draw);
+    }
+}
@@ -0,0 +1,44 @@
+package com.amigo.secreto.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    // false = verificação completa a cada chamada; true = cache de tokens já verificados
+    @Param({"false", "true"})
+    private boolean verifiedCache;
+
+    private JwtService jwtService;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(jwtService, "secret", "benchmark-secret-com-pelo-menos-256-bits-de-tamanho!!");
+        ReflectionTestUtils.setField(jwtService, "expiration", 7_200_000L);
+        ReflectionTestUtils.setField(jwtService, "verifiedCacheEnabled", verifiedCache);
+        ReflectionTestUtils.setField(jwtService, "verifiedCacheMaxSize", 10_000L);
+        jwtService.init();
+        token = jwtService.generateToken("benchmark-user");
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken("benchmark-user");
+    }
+
+    @Benchmark
+    public String getSubject() {
+        return jwtService.getSubject(token);
+    }
+}
@@ -0,0 +1,61 @@
+package com.amigo.secreto.services;
+
+import com.amigo.secreto.benchmarks.BenchmarkFixtures;
+import com.amigo.secreto.models.ExclusionRule;
+import com.amigo.secreto.models.PairingMode;
+import com.amigo.secreto.models.User;
+import com.amigo.secreto.services.pairing.ConstrainedPairingEngine;
+import com.amigo.secreto.services.pairing.PairingEngines;
+import com.amigo.secreto.services.pairing.RandomDerangementPairingEngine;
+import com.amigo.secreto.services.pairing.SingleCyclePairingEngine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DrawServiceBenchmark {
+
+    @Param({"4", "100", "1000", "10000", "100000"})
+    private int participants;
+
+    @Param({"RANDOM", "SINGLE_CYCLE"})
+    private PairingMode mode;
+
+    private DrawService drawService;
+    private List<User> users;
+    private List<ExclusionRule> exclusions;
+
+    @Setup
+    public void setUp() {
+        PairingEngines engines = new PairingEngines(List.of(new RandomDerangementPairingEngine(), new SingleCyclePairingEngine()));
+        drawService = new DrawService(null, null, null, engines, new ConstrainedPairingEngine(), new SimpleMeterRegistry(), null);
+        users = BenchmarkFixtures.participants(participants);
+
+        // Casais (0-1, 2-3, ...) que não podem se tirar, nos dois sentidos
+        exclusions = new ArrayList<>(participants);
+        for (int i = 0; i + 1 < participants; i += 2) {
+            exclusions.add(new ExclusionRule(null, users.get(i).getId(), users.get(i + 1).getId()));
+            exclusions.add(new ExclusionRule(null, users.get(i + 1).getId(), users.get(i).getId()));
+        }
+    }
+
+    @Benchmark
+    public Map<UUID, UUID> generatePairs() {
+        return drawService.generatePairs(users, List.of(), mode);
+    }
+
+    @Benchmark
+    public Map<UUID, UUID> generateConstrainedPairs() {
+        return drawService.generatePairs(users, exclusions, mode);
+    }
+}
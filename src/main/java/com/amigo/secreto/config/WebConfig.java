@@ -0,0 +1,24 @@
+package com.amigo.secreto.config;
+
+import com.amigo.secreto.security.CurrentUser;
+import com.amigo.secreto.security.CurrentUserArgumentResolver;
+import org.springdoc.core.utils.SpringDocUtils;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    static {
+        // O usuário vem do token, não da requisição: não aparece como parâmetro no Swagger
+        SpringDocUtils.getConfig().addAnnotationsToIgnore(CurrentUser.class);
+    }
+
+    @Override
+    public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+        resolvers.add(new CurrentUserArgumentResolver());
+    }
+}
@@ -3,6 +3,8 @@ package com.amigo.secreto.controllers;
 import com.amigo.secreto.dtos.LoginRequestDTO;
 import com.amigo.secreto.dtos.LoginResponseDTO;
 import com.amigo.secreto.dtos.RegisterRequestDTO;
+import com.amigo.secreto.models.User;
+import com.amigo.secreto.security.CurrentUser;
 import com.amigo.secreto.services.AuthService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -42,7 +44,7 @@ public class AuthController {
     @ResponseStatus(HttpStatus.CREATED)
     @Operation(summary = "Registrar usuário admin", description = "Registra um novo usuário com o papel de administrador.")
     @ApiResponse(responseCode = "201", description = "Usuário admin registrado com sucesso")
-    public LoginResponseDTO registerAdmin(@RequestBody RegisterRequestDTO registerRequest) {
-        return authService.registerAdmin(registerRequest);
+    public LoginResponseDTO registerAdmin(@RequestBody RegisterRequestDTO registerRequest, @CurrentUser User currentUser) {
+        return authService.registerAdmin(registerRequest, currentUser);
     }
 }
\ No newline at end of file
@@ -1,18 +1,31 @@
 package com.amigo.secreto.controllers;
 
 import com.amigo.secreto.controllers.exceptions.BaseException;
+import com.amigo.secreto.dtos.BatchDrawRequestDTO;
+import com.amigo.secreto.dtos.BatchDrawResponseDTO;
+import com.amigo.secreto.dtos.DrawJobDTO;
 import com.amigo.secreto.dtos.DrawResponseDTO;
 import com.amigo.secreto.dtos.FriendDrawDTO;
+import com.amigo.secreto.models.User;
+import com.amigo.secreto.security.CurrentUser;
+import com.amigo.secreto.services.BatchDrawService;
+import com.amigo.secreto.services.DrawJobService;
 import com.amigo.secreto.services.DrawService;
+import com.amigo.secreto.services.DrawNotificationService;
+import com.amigo.secreto.services.IdempotencyCache;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.net.URI;
 import java.util.UUID;
 
 @RestController
@@ -21,13 +34,23 @@ import java.util.UUID;
 public class DrawController {
 
     private final DrawService drawService;
+    private final DrawJobService drawJobService;
+    private final BatchDrawService batchDrawService;
+    private final IdempotencyCache idempotencyCache;
+    private final DrawNotificationService drawNotificationService;
 
-    public DrawController(DrawService drawService) {
+    public DrawController(DrawService drawService, DrawJobService drawJobService, BatchDrawService batchDrawService,
+                          IdempotencyCache idempotencyCache, DrawNotificationService drawNotificationService) {
         this.drawService = drawService;
+        this.drawJobService = drawJobService;
+        this.batchDrawService = batchDrawService;
+        this.idempotencyCache = idempotencyCache;
+        this.drawNotificationService = drawNotificationService;
     }
 
     @PostMapping("/create")
-    @Operation(summary = "Criar sorteio (número de membros do grupo deve ser par e não pode ser sorteado anteriormente e apenas dono pode sortear)", description = "Cria um sorteio para o grupo especificado. Apenas o dono do grupo pode criar o sorteio.")
+    @Operation(summary = "Criar sorteio (grupo precisa de pelo menos 2 membros e não pode ser sorteado anteriormente e apenas dono pode sortear)", description = "Cria um sorteio para o grupo especificado. Apenas o dono do grupo pode criar o sorteio. "
+            + "Com o header Idempotency-Key, repetições da mesma requisição devolvem o sorteio criado na primeira.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Sorteio criado com sucesso",
                     content = @Content(schema = @Schema(implementation = DrawResponseDTO.class))),
@@ -35,14 +58,83 @@ public class DrawController {
                     content = @Content(schema = @Schema(implementation = BaseException.class))),
             @ApiResponse(responseCode = "404", description = "Grupo não encontrado",
                     content = @Content(schema = @Schema(implementation = BaseException.class))),
-            @ApiResponse(responseCode = "409", description = "Sorteio já realizado ou número inválido de participantes",
+            @ApiResponse(responseCode = "409", description = "Sorteio já realizado, realizado simultaneamente por outra requisição ou número inválido de participantes",
                     content = @Content(schema = @Schema(implementation = BaseException.class)))
     })
-    public ResponseEntity<DrawResponseDTO> createDraw(@RequestParam UUID groupId) {
-        DrawResponseDTO drawDTO = drawService.createDraw(groupId);
+    public ResponseEntity<DrawResponseDTO> createDraw(
+            @RequestParam UUID groupId,
+            @Parameter(description = "Chave escolhida pelo cliente para identificar tentativas repetidas do mesmo sorteio")
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            @CurrentUser User currentUser
+    ) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return ResponseEntity.ok(drawService.createDraw(groupId, currentUser));
+        }
+
+        // A chave vale por usuário e grupo, e o resultado só é guardado depois do commit
+        String key = currentUser.getId() + ":" + groupId + ":" + idempotencyKey;
+        DrawResponseDTO drawDTO = idempotencyCache.execute(key, () -> drawService.createDraw(groupId, currentUser));
         return ResponseEntity.ok(drawDTO);
     }
 
+    @PostMapping("/batch")
+    @Operation(summary = "Criar sorteios em lote", description = "Sorteia vários grupos do usuário atual em uma única requisição (até 1000). O resultado informa, para cada grupo, se o sorteio foi realizado ou o motivo da falha; "
+            + "um grupo sorteado simultaneamente por outra requisição aparece como ALREADY_DRAWN sem desfazer os demais.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Resultado por grupo",
+                    content = @Content(schema = @Schema(implementation = BatchDrawResponseDTO.class))),
+            @ApiResponse(responseCode = "409", description = "Lista de grupos vazia ou grande demais",
+                    content = @Content(schema = @Schema(implementation = BaseException.class)))
+    })
+    public ResponseEntity<BatchDrawResponseDTO> createDraws(@RequestBody BatchDrawRequestDTO dto, @CurrentUser User currentUser) {
+        return ResponseEntity.ok(batchDrawService.createDraws(dto.groupIds(), currentUser));
+    }
+
+    @PostMapping("/async")
+    @Operation(summary = "Criar sorteio assíncrono", description = "Enfileira o sorteio do grupo e retorna imediatamente o job que o executará. Indicado para grupos muito grandes; acompanhe o andamento em /draws/jobs/{jobId}.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Sorteio enfileirado",
+                    content = @Content(schema = @Schema(implementation = DrawJobDTO.class))),
+            @ApiResponse(responseCode = "403", description = "Acesso proibido - Apenas o dono do grupo pode criar o sorteio",
+                    content = @Content(schema = @Schema(implementation = BaseException.class))),
+            @ApiResponse(responseCode = "404", description = "Grupo não encontrado",
+                    content = @Content(schema = @Schema(implementation = BaseException.class))),
+            @ApiResponse(responseCode = "409", description = "Sorteio já realizado",
+                    content = @Content(schema = @Schema(implementation = BaseException.class)))
+    })
+    public ResponseEntity<DrawJobDTO> createDrawAsync(@RequestParam UUID groupId, @CurrentUser User currentUser) {
+        DrawJobDTO job = drawJobService.enqueue(groupId, currentUser);
+        return ResponseEntity.accepted()
+                .location(URI.create("/draws/jobs/" + job.id()))
+                .body(job);
+    }
+
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Acompanhar sorteio do grupo (SSE)", description = "Abre um stream Server-Sent Events que recebe um único evento \"draw-completed\" (com groupId e drawId) quando o sorteio do grupo for concluído, e então é encerrado. "
+            + "Se o grupo já foi sorteado, o evento é enviado imediatamente. Substitui consultas repetidas a /draws/my-friend.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Stream aberto"),
+            @ApiResponse(responseCode = "403", description = "Acesso proibido - Apenas participantes do grupo podem acompanhar o sorteio"),
+            @ApiResponse(responseCode = "404", description = "Grupo não encontrado")
+    })
+    public SseEmitter drawEvents(@RequestParam UUID groupId, @CurrentUser User currentUser) {
+        return drawNotificationService.subscribe(groupId, currentUser.getId());
+    }
+
+    @GetMapping("/jobs/{jobId}")
+    @Operation(summary = "Consultar job de sorteio", description = "Retorna o status de um sorteio assíncrono e, quando concluído, o ID do sorteio gerado.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Job encontrado",
+                    content = @Content(schema = @Schema(implementation = DrawJobDTO.class))),
+            @ApiResponse(responseCode = "403", description = "Acesso proibido - Apenas quem solicitou pode consultar o job",
+                    content = @Content(schema = @Schema(implementation = BaseException.class))),
+            @ApiResponse(responseCode = "404", description = "Job não encontrado",
+                    content = @Content(schema = @Schema(implementation = BaseException.class)))
+    })
+    public ResponseEntity<DrawJobDTO> getDrawJob(@PathVariable UUID jobId, @CurrentUser User currentUser) {
+        return ResponseEntity.ok(drawJobService.findById(jobId, currentUser));
+    }
+
     @GetMapping("/{drawId}")
     @Operation(summary = "Obter sorteio por ID", description = "Retorna os detalhes de um sorteio específico.")
     @ApiResponses(value = {
@@ -65,8 +157,8 @@ public class DrawController {
             @ApiResponse(responseCode = "404", description = "Grupo não encontrado ou sorteio não realizado ou usuário não é participante",
                     content = @Content(schema = @Schema(implementation = BaseException.class)))
     })
-    public ResponseEntity<FriendDrawDTO> getMyFriend(@RequestParam UUID groupId) {
-        FriendDrawDTO friendDrawDTO = drawService.getMyFriend(groupId);
+    public ResponseEntity<FriendDrawDTO> getMyFriend(@RequestParam UUID groupId, @CurrentUser User currentUser) {
+        FriendDrawDTO friendDrawDTO = drawService.getMyFriend(groupId, currentUser);
         return ResponseEntity.ok(friendDrawDTO);
     }
 }
\ No newline at end of file
@@ -1,15 +1,27 @@
 package com.amigo.secreto.controllers;
 
+import com.amigo.secreto.dtos.BulkInviteRequestDTO;
+import com.amigo.secreto.dtos.BulkInviteResponseDTO;
+import com.amigo.secreto.dtos.CursorPageDTO;
+import com.amigo.secreto.dtos.ExclusionRuleDTO;
+import com.amigo.secreto.dtos.ExclusionRuleRequestDTO;
 import com.amigo.secreto.dtos.GroupCreateRequestDTO;
+import com.amigo.secreto.dtos.GroupSummaryDTO;
+import com.amigo.secreto.dtos.ParticipantDTO;
 import com.amigo.secreto.mappers.GroupMapper;
 import com.amigo.secreto.models.Group;
+import com.amigo.secreto.models.User;
+import com.amigo.secreto.security.CurrentUser;
+import com.amigo.secreto.services.ExclusionRuleService;
 import com.amigo.secreto.services.GroupService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Optional;
@@ -21,41 +33,129 @@ import java.util.UUID;
 public class GroupController {
 
     private final GroupService groupService;
+    private final ExclusionRuleService exclusionRuleService;
+    private final ObjectMapper objectMapper;
 
-    public GroupController(GroupService groupService) {
+    public GroupController(GroupService groupService, ExclusionRuleService exclusionRuleService, ObjectMapper objectMapper) {
         this.groupService = groupService;
+        this.exclusionRuleService = exclusionRuleService;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping
-    @Operation(summary = "Criar grupo", description = "Cria um novo grupo.")
+    @Operation(summary = "Criar grupo", description = "Cria um novo grupo. O pairingMode opcional define o sorteio: RANDOM (padrão) ou SINGLE_CYCLE, em que todos formam um único ciclo de presentes (não aceita restrições de sorteio).")
     @ApiResponse(responseCode = "200", description = "Grupo criado com sucesso")
-    public ResponseEntity<Group> create(@RequestBody GroupCreateRequestDTO dto) {
+    public ResponseEntity<GroupSummaryDTO> create(@RequestBody GroupCreateRequestDTO dto) {
         Group group = GroupMapper.dtoToGroup(dto);
-        return ResponseEntity.ok(groupService.create(group));
+        return ResponseEntity.ok(GroupMapper.toSummaryDTO(groupService.create(group)));
     }
 
     @GetMapping
     @Operation(summary = "Obter todos os grupos", description = "Retorna a lista de todos os grupos.")
     @ApiResponse(responseCode = "200", description = "Grupos encontrados com sucesso")
-    public ResponseEntity<List<Group>> findAll() {
+    public ResponseEntity<List<GroupSummaryDTO>> findAll() {
         return ResponseEntity.ok(groupService.findAll());
     }
 
+    @GetMapping("/page")
+    @Operation(summary = "Listar grupos paginados", description = "Retorna uma página de grupos ordenada por ID. Use o campo nextCursor da resposta como parâmetro after para buscar a próxima página.")
+    @ApiResponse(responseCode = "200", description = "Página de grupos retornada com sucesso")
+    public ResponseEntity<CursorPageDTO<GroupSummaryDTO>> findPage(
+            @Parameter(description = "ID do último grupo da página anterior") @RequestParam(required = false) UUID after,
+            @Parameter(description = "Quantidade de grupos por página (máximo 500)") @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(groupService.findPage(after, size));
+    }
+
+    @GetMapping(value = "/stream", produces = "application/x-ndjson")
+    @Operation(summary = "Exportar todos os grupos em NDJSON", description = "Envia um grupo por linha à medida que são lidos do banco, sem carregar a tabela inteira em memória.")
+    @ApiResponse(responseCode = "200", description = "Grupos enviados com sucesso")
+    public ResponseEntity<StreamingResponseBody> stream() {
+        return ResponseEntity.ok()
+                .contentType(NdjsonStreams.APPLICATION_NDJSON)
+                .body(NdjsonStreams.body(objectMapper, groupService::streamAll));
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Buscar grupo por ID", description = "Retorna os detalhes de um grupo baseado no ID fornecido.")
     @ApiResponse(responseCode = "200", description = "Grupo encontrado")
     @ApiResponse(responseCode = "404", description = "Grupo não encontrado")
-    public ResponseEntity<Group> find(@PathVariable UUID id) {
-        Optional<Group> group = groupService.findById(id);
+    public ResponseEntity<GroupSummaryDTO> find(@PathVariable UUID id) {
+        Optional<GroupSummaryDTO> group = groupService.findSummaryById(id);
         return group.map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
     }
 
+    @GetMapping("/{id}/participants")
+    @Operation(summary = "Listar participantes do grupo", description = "Retorna o ID e o nome de usuário de cada participante do grupo.")
+    @ApiResponse(responseCode = "200", description = "Participantes encontrados")
+    @ApiResponse(responseCode = "404", description = "Grupo não encontrado")
+    public ResponseEntity<List<ParticipantDTO>> findParticipants(@PathVariable UUID id) {
+        return ResponseEntity.ok(groupService.findParticipants(id));
+    }
+
     @PostMapping("/{groupId}/add/{userId}")
     @Operation(summary = "Adicionar usuário ao grupo", description = "Adiciona um usuário a um grupo existente.")
     @ApiResponse(responseCode = "200", description = "Usuário adicionado ao grupo com sucesso")
-    public ResponseEntity<Group> invite(
+    public ResponseEntity<GroupSummaryDTO> invite(
             @PathVariable UUID groupId,
             @PathVariable UUID userId) {
         return ResponseEntity.ok(groupService.invite(userId, groupId));
     }
-}
\ No newline at end of file
+
+    @PostMapping("/{groupId}/participants")
+    @Operation(summary = "Adicionar usuários ao grupo em lote", description = "Adiciona vários usuários a um grupo em uma única requisição. Usuários inexistentes ou que já participam do grupo são ignorados e informados no resultado.")
+    @ApiResponse(responseCode = "200", description = "Resultado por usuário da adição em lote")
+    @ApiResponse(responseCode = "404", description = "Grupo não encontrado")
+    public ResponseEntity<BulkInviteResponseDTO> inviteAll(
+            @PathVariable UUID groupId,
+            @RequestBody BulkInviteRequestDTO dto) {
+        return ResponseEntity.ok(groupService.inviteAll(groupId, dto.userIds()));
+    }
+
+    @GetMapping("/{groupId}/exclusions")
+    @Operation(summary = "Listar restrições do sorteio", description = "Retorna os pares que não podem sair no sorteio do grupo.")
+    @ApiResponse(responseCode = "200", description = "Restrições encontradas")
+    @ApiResponse(responseCode = "404", description = "Grupo não encontrado")
+    public ResponseEntity<List<ExclusionRuleDTO>> findExclusions(@PathVariable UUID groupId) {
+        return ResponseEntity.ok(exclusionRuleService.findByGroup(groupId));
+    }
+
+    @PostMapping("/{groupId}/exclusions")
+    @Operation(summary = "Adicionar restrição ao sorteio", description = "Impede que um participante tire outro (ex.: cônjuges, mesma equipe). Com mutual = true a restrição vale nos dois sentidos.")
+    @ApiResponse(responseCode = "200", description = "Restrições criadas (regras já existentes não são repetidas)")
+    @ApiResponse(responseCode = "403", description = "Apenas o dono do grupo pode alterar as restrições")
+    @ApiResponse(responseCode = "404", description = "Grupo não encontrado ou usuário não participa do grupo")
+    @ApiResponse(responseCode = "409", description = "Sorteio já realizado, restrição inválida ou grupo no modo SINGLE_CYCLE")
+    public ResponseEntity<List<ExclusionRuleDTO>> addExclusion(
+            @PathVariable UUID groupId,
+            @RequestBody ExclusionRuleRequestDTO dto,
+            @CurrentUser User currentUser) {
+        return ResponseEntity.ok(exclusionRuleService.add(groupId, dto, currentUser));
+    }
+
+    @PostMapping("/{groupId}/exclusions/from-draw/{drawId}")
+    @Operation(summary = "Importar restrições de um sorteio anterior", description = "Impede que os pares de outro sorteio (ex.: o do ano passado) se repitam. Só são considerados os pares em que os dois participam do grupo.")
+    @ApiResponse(responseCode = "200", description = "Restrições criadas")
+    @ApiResponse(responseCode = "403", description = "Apenas o dono do grupo pode alterar as restrições")
+    @ApiResponse(responseCode = "404", description = "Grupo ou sorteio não encontrado")
+    @ApiResponse(responseCode = "409", description = "Sorteio do grupo já realizado ou grupo no modo SINGLE_CYCLE")
+    public ResponseEntity<List<ExclusionRuleDTO>> importExclusions(
+            @PathVariable UUID groupId,
+            @PathVariable UUID drawId,
+            @CurrentUser User currentUser) {
+        return ResponseEntity.ok(exclusionRuleService.importFromDraw(groupId, drawId, currentUser));
+    }
+
+    @DeleteMapping("/{groupId}/exclusions/{ruleId}")
+    @Operation(summary = "Remover restrição do sorteio", description = "Remove uma restrição do grupo.")
+    @ApiResponse(responseCode = "204", description = "Restrição removida")
+    @ApiResponse(responseCode = "403", description = "Apenas o dono do grupo pode alterar as restrições")
+    @ApiResponse(responseCode = "404", description = "Grupo ou restrição não encontrada")
+    @ApiResponse(responseCode = "409", description = "Sorteio do grupo já realizado")
+    public ResponseEntity<Void> deleteExclusion(
+            @PathVariable UUID groupId,
+            @PathVariable UUID ruleId,
+            @CurrentUser User currentUser) {
+        exclusionRuleService.delete(groupId, ruleId, currentUser);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -1,12 +1,22 @@
 package com.amigo.secreto.controllers;
 
+import com.amigo.secreto.dtos.CursorPageDTO;
+import com.amigo.secreto.dtos.UserAssignmentDTO;
+import com.amigo.secreto.dtos.UserStatsDTO;
+import com.amigo.secreto.dtos.UserSummaryDTO;
 import com.amigo.secreto.models.User;
+import com.amigo.secreto.security.CurrentUser;
+import com.amigo.secreto.services.UserAssignmentService;
 import com.amigo.secreto.services.UserService;
+import com.amigo.secreto.services.UserStatsService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Optional;
@@ -18,9 +28,16 @@ import java.util.UUID;
 public class UserController {
 
     private final UserService userService;
+    private final UserAssignmentService userAssignmentService;
+    private final UserStatsService userStatsService;
+    private final ObjectMapper objectMapper;
 
-    public UserController(UserService userService) {
+    public UserController(UserService userService, UserAssignmentService userAssignmentService,
+                          UserStatsService userStatsService, ObjectMapper objectMapper) {
         this.userService = userService;
+        this.userAssignmentService = userAssignmentService;
+        this.userStatsService = userStatsService;
+        this.objectMapper = objectMapper;
     }
 
     @GetMapping
@@ -30,6 +47,39 @@ public class UserController {
         return ResponseEntity.ok(userService.findAll());
     }
 
+    @GetMapping("/page")
+    @Operation(summary = "Listar usuários paginados", description = "Retorna uma página de usuários (id, username e item desejado) ordenada por ID. Use o campo nextCursor da resposta como parâmetro after para buscar a próxima página.")
+    @ApiResponse(responseCode = "200", description = "Página de usuários retornada com sucesso")
+    public ResponseEntity<CursorPageDTO<UserSummaryDTO>> findPage(
+            @Parameter(description = "ID do último usuário da página anterior") @RequestParam(required = false) UUID after,
+            @Parameter(description = "Quantidade de usuários por página (máximo 500)") @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(userService.findPage(after, size));
+    }
+
+    @GetMapping(value = "/stream", produces = "application/x-ndjson")
+    @Operation(summary = "Exportar todos os usuários em NDJSON", description = "Envia um usuário (id, username e item desejado) por linha à medida que são lidos do banco, sem carregar a tabela inteira em memória.")
+    @ApiResponse(responseCode = "200", description = "Usuários enviados com sucesso")
+    public ResponseEntity<StreamingResponseBody> stream() {
+        return ResponseEntity.ok()
+                .contentType(NdjsonStreams.APPLICATION_NDJSON)
+                .body(NdjsonStreams.body(objectMapper, userService::streamAll));
+    }
+
+    @GetMapping("/me/assignments")
+    @Operation(summary = "Ver quem eu tirei em todos os grupos", description = "Retorna, para cada grupo já sorteado do qual o usuário atual participa, o amigo que ele tirou e o item desejado, do sorteio mais recente para o mais antigo.")
+    @ApiResponse(responseCode = "200", description = "Amigos sorteados retornados com sucesso")
+    public ResponseEntity<List<UserAssignmentDTO>> myAssignments(@CurrentUser User currentUser) {
+        return ResponseEntity.ok(userAssignmentService.findByUser(currentUser.getId()));
+    }
+
+    @GetMapping("/me/stats")
+    @Operation(summary = "Ver contadores do usuário logado", description = "Retorna, em uma única consulta, quantos grupos o usuário participa, em quantos o sorteio já foi realizado, quantos ainda aguardam sorteio e quantos grupos ele criou. "
+            + "Os valores podem ter alguns segundos de atraso (cache curto).")
+    @ApiResponse(responseCode = "200", description = "Contadores retornados com sucesso")
+    public ResponseEntity<UserStatsDTO> myStats(@CurrentUser User currentUser) {
+        return ResponseEntity.ok(userStatsService.findByUser(currentUser.getId()));
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Buscar usuário por ID", description = "Retorna os detalhes de um usuário baseado no ID fornecido.")
     @ApiResponse(responseCode = "200", description = "Usuário encontrado")
@@ -52,8 +102,8 @@ public class UserController {
     @Operation(summary = "Ver quantos grupos usuário logado está participando", description = "Ver quantos grupos usuário logado está participando")
     @ApiResponse(responseCode = "204", description = "Retorna número de grupos que o usuário participa")
     @ApiResponse(responseCode = "404", description = "Erro")
-    public ResponseEntity<Integer> participatingGroups() {
-        return ResponseEntity.ok(userService.participatingGroups());
+    public ResponseEntity<Integer> participatingGroups(@CurrentUser User currentUser) {
+        return ResponseEntity.ok(userService.countParticipatingGroups(currentUser.getId()));
     }
 
     @GetMapping("/participating-draws")
@@ -63,8 +113,8 @@ public class UserController {
     )
     @ApiResponse(responseCode = "200", description = "Retorna número de sorteios dos quais o usuário participa")
     @ApiResponse(responseCode = "404", description = "Usuário não encontrado")
-    public ResponseEntity<Integer> participatingDraws() {
-        return ResponseEntity.ok(userService.participatingDraws());
+    public ResponseEntity<Integer> participatingDraws(@CurrentUser User currentUser) {
+        return ResponseEntity.ok(userService.countParticipatingDraws(currentUser.getId()));
     }
 
 }
@@ -3,7 +3,9 @@ package com.amigo.secreto.controllers.exceptions;
 import com.amigo.secreto.services.exceptions.*;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -63,10 +65,34 @@ public class ResourceExceptionHandler {
         return ResponseEntity.status(drawAlreadyDone.getStatus()).body(drawAlreadyDone);
     }
 
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<BaseException> handleOptimisticLocking(ObjectOptimisticLockingFailureException e, HttpServletRequest request) {
+        BaseException concurrentUpdate = BaseException.builder().
+                error("Concurrent update")
+                .path(request.getRequestURI())
+                .status(HttpStatus.CONFLICT.value())
+                .message("O recurso foi alterado por outra requisição. Consulte o estado atual antes de tentar novamente.")
+                .timestamp(Instant.now())
+                .build();
+        return ResponseEntity.status(concurrentUpdate.getStatus()).body(concurrentUpdate);
+    }
+
+    @ExceptionHandler(DrawConstraintException.class)
+    public ResponseEntity<BaseException> handleDrawConstraint(DrawConstraintException e, HttpServletRequest request) {
+        BaseException drawConstraint = BaseException.builder().
+                error("Restrições de sorteio impossíveis de atender")
+                .path(request.getRequestURI())
+                .status(HttpStatus.CONFLICT.value())
+                .message(e.getMessage())
+                .timestamp(Instant.now())
+                .build();
+        return ResponseEntity.status(drawConstraint.getStatus()).body(drawConstraint);
+    }
+
     @ExceptionHandler(DrawPairNumberException.class)
     public ResponseEntity<BaseException> handleDrawPairNumber(DrawPairNumberException e, HttpServletRequest request) {
         BaseException drawPairNumber = BaseException.builder().
-                error("O sorteio só pode ser realizado em números pares de participantes")
+                error("Número de participantes insuficiente para o sorteio")
                 .path(request.getRequestURI())
                 .status(HttpStatus.CONFLICT.value())
                 .message(e.getMessage())
@@ -135,6 +161,34 @@ public class ResourceExceptionHandler {
         return ResponseEntity.status(exception.getStatus()).body(exception);
     }
 
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<BaseException> handleTooManyRequests(TooManyRequestsException e, HttpServletRequest request) {
+        BaseException tooManyRequests = BaseException.builder()
+                .error("Muitas requisições")
+                .path(request.getRequestURI())
+                .status(HttpStatus.TOO_MANY_REQUESTS.value())
+                .message(e.getMessage())
+                .timestamp(Instant.now())
+                .build();
+        return ResponseEntity.status(tooManyRequests.getStatus())
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(tooManyRequests);
+    }
+
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<BaseException> handleServiceUnavailable(ServiceUnavailableException e, HttpServletRequest request) {
+        BaseException serviceUnavailable = BaseException.builder()
+                .error("Serviço indisponível")
+                .path(request.getRequestURI())
+                .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+                .message(e.getMessage())
+                .timestamp(Instant.now())
+                .build();
+        return ResponseEntity.status(serviceUnavailable.getStatus())
+                .header(HttpHeaders.RETRY_AFTER, "5")
+                .body(serviceUnavailable);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<BaseException> handleGenericException(Exception e, HttpServletRequest request) {
         BaseException exception = BaseException.builder()
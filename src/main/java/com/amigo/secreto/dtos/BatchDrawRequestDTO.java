@@ -0,0 +1,7 @@
+package com.amigo.secreto.dtos;
+
+import java.util.List;
+import java.util.UUID;
+
+public record BatchDrawRequestDTO(List<UUID> groupIds) {
+}
@@ -0,0 +1,10 @@
+package com.amigo.secreto.dtos;
+
+import java.util.List;
+
+public record BatchDrawResponseDTO(
+        int drawn,
+        int failed,
+        List<BatchDrawResultDTO> results
+) {
+}
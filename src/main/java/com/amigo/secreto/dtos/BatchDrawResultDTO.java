@@ -0,0 +1,14 @@
+package com.amigo.secreto.dtos;
+
+import java.util.UUID;
+
+public record BatchDrawResultDTO(UUID groupId, Status status, UUID drawId, String message) {
+
+    public enum Status {
+        DRAWN,
+        NOT_FOUND,
+        FORBIDDEN,
+        ALREADY_DRAWN,
+        FAILED
+    }
+}
@@ -0,0 +1,13 @@
+package com.amigo.secreto.dtos;
+
+import java.util.List;
+import java.util.UUID;
+
+public record BulkInviteResponseDTO(
+        UUID groupId,
+        int added,
+        int alreadyInGroup,
+        int notFound,
+        List<BulkInviteResultDTO> results
+) {
+}
@@ -0,0 +1,12 @@
+package com.amigo.secreto.dtos;
+
+import java.util.UUID;
+
+public record BulkInviteResultDTO(UUID userId, Status status) {
+
+    public enum Status {
+        ADDED,
+        ALREADY_IN_GROUP,
+        NOT_FOUND
+    }
+}
@@ -0,0 +1,18 @@
+package com.amigo.secreto.dtos;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+public record CursorPageDTO<T>(List<T> content, UUID nextCursor) {
+
+    // As consultas buscam size + 1 linhas: a linha extra só indica que existe próxima página
+    public static <T> CursorPageDTO<T> of(List<T> rows, int size, Function<T, UUID> idExtractor) {
+        if (rows.size() <= size) {
+            return new CursorPageDTO<>(rows, null);
+        }
+
+        List<T> content = rows.subList(0, size);
+        return new CursorPageDTO<>(content, idExtractor.apply(content.get(size - 1)));
+    }
+}
@@ -0,0 +1,17 @@
+package com.amigo.secreto.dtos;
+
+import com.amigo.secreto.models.DrawJobStatus;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record DrawJobDTO(
+        UUID id,
+        UUID groupId,
+        DrawJobStatus status,
+        UUID drawId,
+        String error,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt
+) {
+}
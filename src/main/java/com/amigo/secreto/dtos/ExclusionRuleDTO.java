@@ -0,0 +1,6 @@
+package com.amigo.secreto.dtos;
+
+import java.util.UUID;
+
+public record ExclusionRuleDTO(UUID id, UUID giverId, UUID receiverId) {
+}
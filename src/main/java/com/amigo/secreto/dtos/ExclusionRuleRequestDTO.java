@@ -0,0 +1,7 @@
+package com.amigo.secreto.dtos;
+
+import java.util.UUID;
+
+// mutual = true também impede receiverId de tirar giverId (ex.: casais)
+public record ExclusionRuleRequestDTO(UUID giverId, UUID receiverId, boolean mutual) {
+}
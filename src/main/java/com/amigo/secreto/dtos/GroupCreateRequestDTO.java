@@ -1,6 +1,9 @@
 package com.amigo.secreto.dtos;
 
+import com.amigo.secreto.models.PairingMode;
+
 import java.util.UUID;
 
-public record GroupCreateRequestDTO(String name, UUID ownerId) {
+// pairingMode é opcional (RANDOM por padrão)
+public record GroupCreateRequestDTO(String name, UUID ownerId, PairingMode pairingMode) {
 }
@@ -0,0 +1,14 @@
+package com.amigo.secreto.dtos;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record GroupSummaryDTO(
+        UUID id,
+        String name,
+        UUID ownerId,
+        LocalDateTime createdAt,
+        int participantCount,
+        boolean alreadyDrawn
+) {
+}
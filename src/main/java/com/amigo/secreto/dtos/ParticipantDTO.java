@@ -0,0 +1,6 @@
+package com.amigo.secreto.dtos;
+
+import java.util.UUID;
+
+public record ParticipantDTO(UUID id, String username) {
+}
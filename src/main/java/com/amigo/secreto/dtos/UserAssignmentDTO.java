@@ -0,0 +1,15 @@
+package com.amigo.secreto.dtos;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record UserAssignmentDTO(
+        UUID groupId,
+        String groupName,
+        UUID drawId,
+        UUID friendId,
+        String friendUsername,
+        String wishItem,
+        LocalDateTime drawnAt
+) {
+}
@@ -0,0 +1,9 @@
+package com.amigo.secreto.dtos;
+
+public record UserStatsDTO(
+        long participatingGroups,
+        long participatingDraws,
+        long pendingDraws,
+        long ownedGroups
+) {
+}
@@ -0,0 +1,7 @@
+package com.amigo.secreto.dtos;
+
+import java.util.UUID;
+
+// Listagens e exportação de usuários: sem senha, email nem roles
+public record UserSummaryDTO(UUID id, String username, String wishItem) {
+}
@@ -0,0 +1,20 @@
+package com.amigo.secreto.mappers;
+
+import com.amigo.secreto.dtos.DrawJobDTO;
+import com.amigo.secreto.models.DrawJob;
+
+public class DrawJobMapper {
+
+    public static DrawJobDTO toDrawJobDTO(DrawJob job) {
+        return new DrawJobDTO(
+                job.getId(),
+                job.getGroupId(),
+                job.getStatus(),
+                job.getDrawId(),
+                job.getError(),
+                job.getCreatedAt(),
+                job.getUpdatedAt()
+        );
+    }
+
+}
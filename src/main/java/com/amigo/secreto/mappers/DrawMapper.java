@@ -5,28 +5,41 @@ import com.amigo.secreto.models.Draw;
 import com.amigo.secreto.models.User;
 import com.amigo.secreto.services.exceptions.ResourceNotFoundException;
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 public class DrawMapper {
 
     public static DrawResponseDTO toDrawResponseDTO(Draw draw) {
-        Map<String, String> pairsWithNames = draw.getPairs().entrySet().stream()
-                .collect(Collectors.toMap(
-                        entry -> getUserNameById(entry.getKey(), draw),
-                        entry -> getUserNameById(entry.getValue(), draw)
-                ));
+        Map<UUID, String> usernames = indexUsernames(draw.getGroup().getParticipants());
 
-        return new DrawResponseDTO(draw.getId(), draw.getGroup(), pairsWithNames);
+        Map<String, String> pairsWithNames = new HashMap<>(capacityFor(draw.pairCount()));
+        draw.forEachPair((giverId, receiverId) ->
+                pairsWithNames.put(getUserName(giverId, usernames), getUserName(receiverId, usernames)));
+
+        return new DrawResponseDTO(draw.getId(), GroupMapper.toSummaryDTO(draw.getGroup()), pairsWithNames);
+    }
+
+    private static Map<UUID, String> indexUsernames(Collection<User> participants) {
+        Map<UUID, String> usernames = new HashMap<>(capacityFor(participants.size()));
+        for (User participant : participants) {
+            usernames.put(participant.getId(), participant.getUsername());
+        }
+        return usernames;
     }
 
-    private static String getUserNameById(UUID userId, Draw draw) {
-        return draw.getGroup().getParticipants().stream()
-                .filter(user -> user.getId().equals(userId))
-                .map(User::getUsername)
-                .findFirst()
-                .orElseThrow(() -> new ResourceNotFoundException("Usuário de id " + userId + " não encontrado"));
+    private static String getUserName(UUID userId, Map<UUID, String> usernames) {
+        String username = usernames.get(userId);
+        if (username == null) {
+            throw new ResourceNotFoundException("Usuário de id " + userId + " não encontrado");
+        }
+        return username;
     }
-    
+
+    private static int capacityFor(int size) {
+        return (int) (size / 0.75f) + 1;
+    }
+
 }
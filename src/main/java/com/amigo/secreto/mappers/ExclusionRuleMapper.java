@@ -0,0 +1,12 @@
+package com.amigo.secreto.mappers;
+
+import com.amigo.secreto.dtos.ExclusionRuleDTO;
+import com.amigo.secreto.models.ExclusionRule;
+
+public class ExclusionRuleMapper {
+
+    public static ExclusionRuleDTO toExclusionRuleDTO(ExclusionRule rule) {
+        return new ExclusionRuleDTO(rule.getId(), rule.getGiverId(), rule.getReceiverId());
+    }
+
+}
@@ -1,6 +1,7 @@
 package com.amigo.secreto.mappers;
 
 import com.amigo.secreto.dtos.GroupCreateRequestDTO;
+import com.amigo.secreto.dtos.GroupSummaryDTO;
 import com.amigo.secreto.models.Group;
 
 public class GroupMapper {
@@ -9,7 +10,21 @@ public class GroupMapper {
         Group group = new Group();
         group.setOwnerId(dto.ownerId());
         group.setName(dto.name());
+        if (dto.pairingMode() != null) {
+            group.setPairingMode(dto.pairingMode());
+        }
         return group;
     }
 
+    public static GroupSummaryDTO toSummaryDTO(Group group) {
+        return new GroupSummaryDTO(
+                group.getId(),
+                group.getName(),
+                group.getOwnerId(),
+                group.getCreatedAt(),
+                group.getParticipants().size(),
+                group.isAlreadyDrawn()
+        );
+    }
+
 }
@@ -4,11 +4,13 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
 
+import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
+import java.util.function.BiConsumer;
 
 @Entity
-@Table(name = "tb_draw")
+@Table(name = "tb_draw", indexes = @Index(name = "idx_draw_group", columnList = "group_id"))
 @AllArgsConstructor
 @NoArgsConstructor
 @Getter
@@ -20,12 +22,59 @@ public class Draw {
 
     @OneToOne
     @JsonIgnore
-    @JoinColumn(name = "group_id")
+    @JoinColumn(name = "group_id", unique = true)
     private Group group;
 
+    // Fica null até o primeiro insert: é assim que o Spring Data distingue persist de merge
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+
     @ElementCollection
-    @CollectionTable(name = "draw_pairs", joinColumns = @JoinColumn(name = "draw_id"))
+    @CollectionTable(
+            name = "draw_pairs",
+            joinColumns = @JoinColumn(name = "draw_id"),
+            indexes = @Index(name = "idx_draw_pairs_giver", columnList = "giver_id, draw_id")
+    )
     @MapKeyJoinColumn(name = "giver_id")
     @Column(name = "receiver_id")
-    private Map<UUID, UUID> pairs;
+    private Map<UUID, UUID> pairs = new HashMap<>();
+
+    // Modo compacto (grupos grandes): ver PackedPairs. Quando preenchido, "pairs" fica vazio
+    @JsonIgnore
+    @Column(name = "participant_order", columnDefinition = "bytea")
+    private byte[] participantOrder;
+
+    @JsonIgnore
+    @Column(name = "packed_pairs", columnDefinition = "bytea")
+    private byte[] packedPairs;
+
+    public boolean isPacked() {
+        return packedPairs != null;
+    }
+
+    public void setPacked(PackedPairs packed) {
+        this.participantOrder = packed.participantOrder();
+        this.packedPairs = packed.packedReceivers();
+    }
+
+    public int pairCount() {
+        return isPacked() ? packed().size() : pairs.size();
+    }
+
+    public UUID receiverOf(UUID giverId) {
+        return isPacked() ? packed().receiverOf(giverId) : pairs.get(giverId);
+    }
+
+    public void forEachPair(BiConsumer<UUID, UUID> action) {
+        if (isPacked()) {
+            packed().forEach(action);
+        } else {
+            pairs.forEach(action);
+        }
+    }
+
+    private PackedPairs packed() {
+        return new PackedPairs(participantOrder, packedPairs);
+    }
 }
@@ -0,0 +1,41 @@
+package com.amigo.secreto.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@Table(name = "tb_draw_job", indexes = @Index(name = "idx_draw_job_status", columnList = "status, created_at"))
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class DrawJob {
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(nullable = false)
+    private UUID groupId;
+
+    @Column(nullable = false)
+    private UUID requestedBy;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private DrawJobStatus status = DrawJobStatus.PENDING;
+
+    private UUID drawId;
+
+    @Column(length = 500)
+    private String error;
+
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,8 @@
+package com.amigo.secreto.models;
+
+public enum DrawJobStatus {
+    PENDING,
+    RUNNING,
+    DONE,
+    FAILED
+}
@@ -0,0 +1,43 @@
+package com.amigo.secreto.models;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.UUID;
+
+// "giverId não pode tirar receiverId" no sorteio do grupo. Restrições mútuas (casais) são duas regras
+@Entity
+@Table(
+        name = "tb_exclusion_rule",
+        uniqueConstraints = @UniqueConstraint(name = "uk_exclusion_rule", columnNames = {"group_id", "giver_id", "receiver_id"})
+)
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class ExclusionRule {
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JsonIgnore
+    @JoinColumn(name = "group_id")
+    private Group group;
+
+    @Column(name = "giver_id", nullable = false)
+    private UUID giverId;
+
+    @Column(name = "receiver_id", nullable = false)
+    private UUID receiverId;
+
+    public ExclusionRule(Group group, UUID giverId, UUID receiverId) {
+        this.group = group;
+        this.giverId = giverId;
+        this.receiverId = receiverId;
+    }
+}
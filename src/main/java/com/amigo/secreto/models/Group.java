@@ -8,12 +8,12 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.HashSet;
+import java.util.Set;
 import java.util.UUID;
 
 @Entity
-@Table(name = "tb_group")
+@Table(name = "tb_group", indexes = @Index(name = "idx_group_owner", columnList = "owner_id"))
 @AllArgsConstructor
 @NoArgsConstructor
 @Getter
@@ -29,17 +29,33 @@ public class Group {
 
     private LocalDateTime createdAt = LocalDateTime.now();
 
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16, columnDefinition = "varchar(16) default 'RANDOM'")
+    private PairingMode pairingMode = PairingMode.RANDOM;
+
+    // Incrementada a cada sorteio (OPTIMISTIC_FORCE_INCREMENT): dois sorteios simultâneos do mesmo grupo não passam
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+
     @ManyToMany
     @JoinTable(
             name = "user_groups",
             joinColumns = @JoinColumn(name = "group_id"),
-            inverseJoinColumns = @JoinColumn(name = "participant_id")
+            inverseJoinColumns = @JoinColumn(name = "participant_id"),
+            uniqueConstraints = @UniqueConstraint(name = "uk_user_groups_member", columnNames = {"group_id", "participant_id"}),
+            // A constraint única começa por group_id; as consultas "grupos do usuário" precisam deste
+            indexes = @Index(name = "idx_user_groups_participant", columnList = "participant_id")
     )
-    List<User> participants = new ArrayList<>();
+    Set<User> participants = new HashSet<>();
 
     @OneToOne(mappedBy = "group", cascade = CascadeType.ALL)
     private Draw draw;
 
+    @JsonIgnore
+    @OneToMany(mappedBy = "group", cascade = CascadeType.ALL, orphanRemoval = true)
+    private Set<ExclusionRule> exclusions = new HashSet<>();
+
     public boolean isAlreadyDrawn() {
         return draw != null;
     }
@@ -0,0 +1,137 @@
+package com.amigo.secreto.models;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+
+/**
+ * Representação compacta dos pares de um sorteio: os participantes ficam ordenados por id
+ * (16 bytes cada) e, para cada um, é guardado o ordinal de quem ele tirou com a menor largura
+ * fixa que comporta o grupo (1 a 4 bytes). A largura fixa permite ler um único par em O(log n)
+ * sem decodificar o restante do array.
+ */
+public final class PackedPairs {
+
+    private static final int UUID_BYTES = 16;
+
+    private final ByteBuffer participants;
+    private final byte[] receivers;
+    private final int size;
+    private final int width;
+
+    public PackedPairs(byte[] participantOrder, byte[] packedReceivers) {
+        if (participantOrder.length % UUID_BYTES != 0) {
+            throw new IllegalArgumentException("Ordem de participantes corrompida");
+        }
+
+        this.participants = ByteBuffer.wrap(participantOrder);
+        this.receivers = packedReceivers;
+        this.size = participantOrder.length / UUID_BYTES;
+        this.width = widthFor(size);
+
+        if (packedReceivers.length != size * width) {
+            throw new IllegalArgumentException("Pares compactados não correspondem aos participantes");
+        }
+    }
+
+    /**
+     * @param sortedIds ids dos participantes em ordem crescente ({@link UUID#compareTo})
+     * @param receivers para cada posição de {@code sortedIds}, a posição de quem foi sorteado
+     */
+    public static PackedPairs encode(List<UUID> sortedIds, int[] receivers) {
+        int size = sortedIds.size();
+        int width = widthFor(size);
+
+        ByteBuffer order = ByteBuffer.allocate(size * UUID_BYTES);
+        for (UUID id : sortedIds) {
+            order.putLong(id.getMostSignificantBits());
+            order.putLong(id.getLeastSignificantBits());
+        }
+
+        byte[] packed = new byte[size * width];
+        for (int giver = 0; giver < size; giver++) {
+            int receiver = receivers[giver];
+            for (int b = 0; b < width; b++) {
+                packed[giver * width + b] = (byte) (receiver >>> (8 * (width - 1 - b)));
+            }
+        }
+
+        return new PackedPairs(order.array(), packed);
+    }
+
+    public UUID receiverOf(UUID giverId) {
+        int giver = indexOf(giverId);
+        return giver < 0 ? null : idAt(receiverAt(giver));
+    }
+
+    public void forEach(BiConsumer<UUID, UUID> action) {
+        for (int giver = 0; giver < size; giver++) {
+            action.accept(idAt(giver), idAt(receiverAt(giver)));
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public byte[] participantOrder() {
+        return participants.array();
+    }
+
+    public byte[] packedReceivers() {
+        return receivers;
+    }
+
+    // Busca binária comparando os longs direto no buffer, na mesma ordem de UUID.compareTo
+    private int indexOf(UUID id) {
+        long msb = id.getMostSignificantBits();
+        long lsb = id.getLeastSignificantBits();
+
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int offset = mid * UUID_BYTES;
+            int cmp = Long.compare(participants.getLong(offset), msb);
+            if (cmp == 0) {
+                cmp = Long.compare(participants.getLong(offset + 8), lsb);
+            }
+
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    private UUID idAt(int index) {
+        int offset = index * UUID_BYTES;
+        return new UUID(participants.getLong(offset), participants.getLong(offset + 8));
+    }
+
+    private int receiverAt(int giver) {
+        int value = 0;
+        for (int b = 0; b < width; b++) {
+            value = (value << 8) | (receivers[giver * width + b] & 0xFF);
+        }
+        return value;
+    }
+
+    private static int widthFor(int size) {
+        if (size <= 1 << 8) {
+            return 1;
+        }
+        if (size <= 1 << 16) {
+            return 2;
+        }
+        if (size <= 1 << 24) {
+            return 3;
+        }
+        return 4;
+    }
+}
@@ -0,0 +1,8 @@
+package com.amigo.secreto.models;
+
+public enum PairingMode {
+    // Desarranjo aleatório: podem se formar vários ciclos (ex.: A tira B e B tira A)
+    RANDOM,
+    // Um único ciclo com todos os participantes: A -> B -> C -> ... -> A
+    SINGLE_CYCLE
+}
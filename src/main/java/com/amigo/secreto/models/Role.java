@@ -2,11 +2,15 @@ package com.amigo.secreto.models;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.UUID;
 
+// Roles só são criadas pelo DataInitializer e nunca alteradas
 @Entity
 @Table(name = "tb_role")
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY, region = "role")
 @Getter
 @Setter
 @NoArgsConstructor
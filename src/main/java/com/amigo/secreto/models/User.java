@@ -4,6 +4,12 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -12,6 +18,8 @@ import java.util.*;
 
 @Entity
 @Table(name = "tb_user")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "user")
+@NaturalIdCache(region = "user-natural-id")
 @AllArgsConstructor
 @NoArgsConstructor
 @Getter
@@ -21,6 +29,8 @@ public class User implements UserDetails {
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
 
+    // Natural id mutável: o usuário pode trocar o username, e o cache acompanha a troca
+    @NaturalId(mutable = true)
     @Column(unique = true)
     private String username;
 
@@ -32,7 +42,10 @@ public class User implements UserDetails {
 
     private String wishItem;
 
+    // SUBSELECT: as roles de todos os usuários carregados por uma consulta vêm em um único select extra
     @ManyToMany(fetch = FetchType.EAGER)
+    @Fetch(FetchMode.SUBSELECT)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "user-roles")
     @JoinTable(
             name = "tb_user_roles",
             joinColumns = @JoinColumn(name = "user_id"),
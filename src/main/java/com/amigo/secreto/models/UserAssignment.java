@@ -0,0 +1,68 @@
+package com.amigo.secreto.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Modelo de leitura desnormalizado de "quem eu tirei": uma linha por participante e sorteio, com
+ * os dados de quem foi tirado já copiados. É escrito via JDBC (UserAssignmentJdbcRepository) junto
+ * com o sorteio e atualizado quando o usuário tirado muda de username ou de item desejado.
+ */
+@Entity
+@Table(
+        name = "tb_user_assignment",
+        indexes = {
+                @Index(name = "idx_user_assignment_receiver", columnList = "receiver_id"),
+                @Index(name = "idx_user_assignment_group", columnList = "group_id")
+        }
+)
+@IdClass(UserAssignment.Key.class)
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class UserAssignment {
+
+    // A chave começa por user_id: a consulta de /users/me/assignments usa o próprio índice da PK
+    @Id
+    @Column(name = "user_id")
+    private UUID userId;
+
+    @Id
+    @Column(name = "group_id")
+    private UUID groupId;
+
+    @Column(name = "group_name")
+    private String groupName;
+
+    @Column(name = "draw_id", nullable = false)
+    private UUID drawId;
+
+    @Column(name = "receiver_id", nullable = false)
+    private UUID receiverId;
+
+    @Column(name = "receiver_username")
+    private String receiverUsername;
+
+    @Column(name = "wish_item")
+    private String wishItem;
+
+    @Column(name = "drawn_at", nullable = false)
+    private LocalDateTime drawnAt;
+
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private UUID userId;
+        private UUID groupId;
+    }
+}
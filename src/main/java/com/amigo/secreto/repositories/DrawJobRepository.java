@@ -0,0 +1,29 @@
+package com.amigo.secreto.repositories;
+
+import com.amigo.secreto.models.DrawJob;
+import com.amigo.secreto.models.DrawJobStatus;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface DrawJobRepository extends JpaRepository<DrawJob, UUID> {
+
+    List<DrawJob> findByStatusOrderByCreatedAtAsc(DrawJobStatus status, Limit limit);
+
+    // Só um worker consegue mudar o status de "from" para "to"; os demais recebem 0
+    @Transactional
+    @Modifying
+    @Query("UPDATE DrawJob j SET j.status = :to, j.updatedAt = CURRENT_TIMESTAMP WHERE j.id = :id AND j.status = :from")
+    int transition(@Param("id") UUID id, @Param("from") DrawJobStatus from, @Param("to") DrawJobStatus to);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE DrawJob j SET j.status = :to, j.updatedAt = CURRENT_TIMESTAMP WHERE j.status = :from")
+    int transitionAll(@Param("from") DrawJobStatus from, @Param("to") DrawJobStatus to);
+}
@@ -1,11 +1,36 @@
 package com.amigo.secreto.repositories;
 
 import com.amigo.secreto.models.Draw;
+import com.amigo.secreto.repositories.projections.FriendProjection;
+import com.amigo.secreto.repositories.projections.PackedDrawProjection;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.Optional;
 import java.util.UUID;
 
 public interface DrawRepository extends JpaRepository<Draw, UUID> {
-    Optional<Draw> findByGroupId(UUID groupId);
-}
\ No newline at end of file
+    @Query("SELECT d.id FROM Draw d WHERE d.group.id = :groupId")
+    Optional<UUID> findIdByGroupId(@Param("groupId") UUID groupId);
+
+    // Os pares não entram no grafo: junto com os participantes o resultado seria n x n linhas
+    @EntityGraph(attributePaths = {"group", "group.participants"})
+    Optional<Draw> findWithGroupById(UUID id);
+
+    // Só sorteios gravados em draw_pairs; os compactados são lidos por findPackedByGroupId
+    @Query(value = """
+            SELECT u.id AS "friendId", u.username AS "friendUsername", u.wish_item AS "wishItem"
+            FROM draw_pairs dp
+            JOIN tb_draw d ON d.id = dp.draw_id
+            JOIN tb_user u ON u.id = dp.receiver_id
+            WHERE d.group_id = :groupId AND dp.giver_id = :giverId
+            """, nativeQuery = true)
+    Optional<FriendProjection> findFriend(@Param("groupId") UUID groupId, @Param("giverId") UUID giverId);
+
+    // Sem carregar o sorteio nem o grupo: só o id e os dois arrays, dos quais se decodifica uma posição
+    @Query("SELECT d.id AS id, d.participantOrder AS participantOrder, d.packedPairs AS packedPairs "
+            + "FROM Draw d WHERE d.group.id = :groupId")
+    Optional<PackedDrawProjection> findPackedByGroupId(@Param("groupId") UUID groupId);
+}
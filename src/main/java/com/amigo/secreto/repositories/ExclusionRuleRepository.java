@@ -0,0 +1,18 @@
+package com.amigo.secreto.repositories;
+
+import com.amigo.secreto.models.ExclusionRule;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface ExclusionRuleRepository extends JpaRepository<ExclusionRule, UUID> {
+
+    List<ExclusionRule> findByGroupIdOrderByGiverId(UUID groupId);
+
+    Optional<ExclusionRule> findByIdAndGroupId(UUID id, UUID groupId);
+
+    List<ExclusionRule> findByGroupIdIn(Collection<UUID> groupIds);
+}
@@ -0,0 +1,87 @@
+package com.amigo.secreto.repositories;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.util.*;
+
+/**
+ * Operações em lote sobre a tabela user_groups feitas direto via JDBC, para adicionar
+ * milhares de participantes sem carregar nem reescrever a coleção do grupo.
+ */
+@Repository
+public class GroupMembershipJdbcRepository {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private static final String INSERT_MEMBERS = """
+            INSERT INTO user_groups (group_id, participant_id)
+            SELECT ?::uuid, participant_id FROM unnest(?::uuid[]) AS ids(participant_id)
+            ON CONFLICT DO NOTHING
+            RETURNING participant_id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    public GroupMembershipJdbcRepository(JdbcTemplate jdbcTemplate, NamedParameterJdbcTemplate namedParameterJdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+    }
+
+    public Set<UUID> findExistingUserIds(Collection<UUID> userIds) {
+        Set<UUID> existing = new HashSet<>();
+        for (List<UUID> chunk : chunks(userIds)) {
+            existing.addAll(namedParameterJdbcTemplate.queryForList(
+                    "SELECT id FROM tb_user WHERE id IN (:ids)",
+                    new MapSqlParameterSource("ids", chunk),
+                    UUID.class));
+        }
+        return existing;
+    }
+
+    public Set<UUID> findMemberIds(UUID groupId, Collection<UUID> userIds) {
+        Set<UUID> members = new HashSet<>();
+        for (List<UUID> chunk : chunks(userIds)) {
+            members.addAll(namedParameterJdbcTemplate.queryForList(
+                    "SELECT participant_id FROM user_groups WHERE group_id = :groupId AND participant_id IN (:ids)",
+                    new MapSqlParameterSource("groupId", groupId).addValue("ids", chunk),
+                    UUID.class));
+        }
+        return members;
+    }
+
+    /**
+     * Insere os participantes em lotes, ignorando quem já for membro (ex.: convite concorrente).
+     * Retorna os ids que de fato foram inseridos.
+     */
+    public Set<UUID> insertMembers(UUID groupId, List<UUID> userIds) {
+        Set<UUID> inserted = new HashSet<>();
+        for (List<UUID> chunk : chunks(userIds)) {
+            // Um INSERT por lote com os ids em um array: o RETURNING traz só as linhas gravadas. Com
+            // batchUpdate e reWriteBatchedInserts o driver devolve SUCCESS_NO_INFO também para as linhas
+            // ignoradas pelo ON CONFLICT, e quem já era membro seria contado como adicionado
+            inserted.addAll(jdbcTemplate.query(
+                    connection -> {
+                        PreparedStatement ps = connection.prepareStatement(INSERT_MEMBERS);
+                        ps.setObject(1, groupId);
+                        ps.setArray(2, connection.createArrayOf("uuid", chunk.toArray()));
+                        return ps;
+                    },
+                    (rs, rowNum) -> rs.getObject(1, UUID.class)));
+        }
+        return inserted;
+    }
+
+    private static List<List<UUID>> chunks(Collection<UUID> ids) {
+        List<UUID> all = new ArrayList<>(ids);
+        List<List<UUID>> chunks = new ArrayList<>();
+        for (int start = 0; start < all.size(); start += BATCH_SIZE) {
+            chunks.add(all.subList(start, Math.min(start + BATCH_SIZE, all.size())));
+        }
+        return chunks;
+    }
+}
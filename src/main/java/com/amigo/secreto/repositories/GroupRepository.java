@@ -1,9 +1,75 @@
 package com.amigo.secreto.repositories;
 
+import com.amigo.secreto.dtos.GroupSummaryDTO;
+import com.amigo.secreto.dtos.ParticipantDTO;
 import com.amigo.secreto.models.Group;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_NATIVE_SPACES;
 
 public interface GroupRepository extends JpaRepository<Group, UUID> {
+
+    String SELECT_SUMMARY = "SELECT new com.amigo.secreto.dtos.GroupSummaryDTO("
+            + "g.id, g.name, g.ownerId, g.createdAt, SIZE(g.participants), CASE WHEN d.id IS NULL THEN false ELSE true END) "
+            + "FROM Group g LEFT JOIN g.draw d ";
+
+    @Query(SELECT_SUMMARY + "ORDER BY g.id")
+    List<GroupSummaryDTO> findAllSummaries();
+
+    // A versão do grupo é incrementada no commit mesmo sem outras alterações
+    @Lock(LockModeType.OPTIMISTIC_FORCE_INCREMENT)
+    @EntityGraph(attributePaths = {"participants", "draw"})
+    @Query("SELECT g FROM Group g WHERE g.id = :id")
+    Optional<Group> findForDrawById(@Param("id") UUID id);
+
+    @EntityGraph(attributePaths = {"participants", "draw"})
+    Optional<Group> findWithParticipantsById(UUID id);
+
+    // Sorteio em lote: grupos, participantes e sorteio existente em uma única consulta
+    @Query("SELECT DISTINCT g FROM Group g LEFT JOIN FETCH g.participants LEFT JOIN FETCH g.draw WHERE g.id IN :ids")
+    List<Group> findForDrawByIdIn(@Param("ids") Collection<UUID> ids);
+
+    @Query(SELECT_SUMMARY + "WHERE g.id = :id")
+    Optional<GroupSummaryDTO> findSummaryById(@Param("id") UUID id);
+
+    @Query(SELECT_SUMMARY + "ORDER BY g.id")
+    List<GroupSummaryDTO> findSummaries(Limit limit);
+
+    @Query(SELECT_SUMMARY + "WHERE g.id > :after ORDER BY g.id")
+    List<GroupSummaryDTO> findSummariesAfter(@Param("after") UUID after, Limit limit);
+
+    @Query(SELECT_SUMMARY + "ORDER BY g.id")
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    Stream<GroupSummaryDTO> streamSummaries();
+
+    @Query("SELECT new com.amigo.secreto.dtos.ParticipantDTO(p.id, p.username) "
+            + "FROM Group g JOIN g.participants p WHERE g.id = :groupId ORDER BY p.username")
+    List<ParticipantDTO> findParticipants(@Param("groupId") UUID groupId);
+
+    @Query(value = "SELECT EXISTS(SELECT 1 FROM user_groups WHERE group_id = :groupId AND participant_id = :userId)",
+            nativeQuery = true)
+    boolean existsParticipant(@Param("groupId") UUID groupId, @Param("userId") UUID userId);
+
+    // Sem declarar a tabela afetada, o Hibernate trata o SQL nativo como "pode ter mudado tudo" e esvazia
+    // todas as regiões do cache de segundo nível e do cache de consultas a cada convite
+    @Modifying
+    @Query(value = "INSERT INTO user_groups (group_id, participant_id) VALUES (:groupId, :userId)", nativeQuery = true)
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = "user_groups"))
+    void addParticipant(@Param("groupId") UUID groupId, @Param("userId") UUID userId);
 }
@@ -1,12 +1,18 @@
 package com.amigo.secreto.repositories;
 
 import com.amigo.secreto.models.Role;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.util.Optional;
 import java.util.UUID;
 
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+
 public interface RoleRepository extends JpaRepository<Role, UUID> {
+  // Resultado no cache de consultas e Role no cache de entidades: nenhum SQL depois da primeira chamada
+  @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
   Optional<Role> findByName(String name);
 
   boolean existsByName(String roleName);
@@ -0,0 +1,67 @@
+package com.amigo.secreto.repositories;
+
+import com.amigo.secreto.models.UserAssignment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Escrita do modelo de leitura tb_user_assignment via JDBC. Com a chave atribuída pela aplicação,
+ * o saveAll do Spring Data faria um SELECT por linha (merge) antes de cada insert; aqui um sorteio
+ * de milhares de participantes vira poucos lotes de INSERT.
+ */
+@Repository
+public class UserAssignmentJdbcRepository {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public UserAssignmentJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void insertAll(List<UserAssignment> assignments) {
+        jdbcTemplate.batchUpdate(
+                """
+                INSERT INTO tb_user_assignment
+                    (user_id, group_id, group_name, draw_id, receiver_id, receiver_username, wish_item, drawn_at)
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+                ON CONFLICT DO NOTHING
+                """,
+                assignments,
+                BATCH_SIZE,
+                (ps, assignment) -> {
+                    ps.setObject(1, assignment.getUserId());
+                    ps.setObject(2, assignment.getGroupId());
+                    ps.setString(3, assignment.getGroupName());
+                    ps.setObject(4, assignment.getDrawId());
+                    ps.setObject(5, assignment.getReceiverId());
+                    ps.setString(6, assignment.getReceiverUsername());
+                    ps.setString(7, assignment.getWishItem());
+                    ps.setTimestamp(8, Timestamp.valueOf(assignment.getDrawnAt()));
+                });
+    }
+
+    // Usa o índice idx_user_assignment_receiver
+    public void updateReceiver(UUID receiverId, String receiverUsername, String wishItem) {
+        jdbcTemplate.update(
+                "UPDATE tb_user_assignment SET receiver_username = ?, wish_item = ? WHERE receiver_id = ?",
+                receiverUsername, wishItem, receiverId);
+    }
+
+    public void updateGroupName(UUID groupId, String groupName) {
+        jdbcTemplate.update("UPDATE tb_user_assignment SET group_name = ? WHERE group_id = ?", groupName, groupId);
+    }
+
+    public void deleteByGroupId(UUID groupId) {
+        jdbcTemplate.update("DELETE FROM tb_user_assignment WHERE group_id = ?", groupId);
+    }
+
+    public void deleteByUserId(UUID userId) {
+        jdbcTemplate.update("DELETE FROM tb_user_assignment WHERE user_id = ? OR receiver_id = ?", userId, userId);
+    }
+}
@@ -0,0 +1,26 @@
+package com.amigo.secreto.repositories;
+
+import com.amigo.secreto.dtos.UserAssignmentDTO;
+import com.amigo.secreto.models.UserAssignment;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface UserAssignmentRepository extends JpaRepository<UserAssignment, UserAssignment.Key> {
+
+    @Query("SELECT new com.amigo.secreto.dtos.UserAssignmentDTO("
+            + "a.groupId, a.groupName, a.drawId, a.receiverId, a.receiverUsername, "
+            + "COALESCE(a.wishItem, 'Nenhum item desejado cadastrado'), a.drawnAt) "
+            + "FROM UserAssignment a WHERE a.userId = :userId ORDER BY a.drawnAt DESC")
+    List<UserAssignmentDTO> findByUserId(@Param("userId") UUID userId);
+
+    // Sorteios feitos antes do modelo de leitura existir
+    @Query(value = """
+            SELECT d.id FROM tb_draw d
+            WHERE NOT EXISTS (SELECT 1 FROM tb_user_assignment a WHERE a.group_id = d.group_id)
+            """, nativeQuery = true)
+    List<UUID> findDrawIdsWithoutAssignments();
+}
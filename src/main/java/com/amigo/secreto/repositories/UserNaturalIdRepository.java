@@ -0,0 +1,10 @@
+package com.amigo.secreto.repositories;
+
+import com.amigo.secreto.models.User;
+
+import java.util.Optional;
+
+public interface UserNaturalIdRepository {
+
+    Optional<User> findByUsername(String username);
+}
@@ -0,0 +1,32 @@
+package com.amigo.secreto.repositories;
+
+import com.amigo.secreto.models.User;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+
+import java.util.Optional;
+
+/**
+ * Busca de usuário pelo username como natural id: com o usuário no cache de segundo nível,
+ * username -> id e id -> User são resolvidos sem nenhum SQL. Uma consulta derivada
+ * (findByUsername) sempre iria ao banco.
+ */
+public class UserNaturalIdRepositoryImpl implements UserNaturalIdRepository {
+
+    private final EntityManager entityManager;
+
+    public UserNaturalIdRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public Optional<User> findByUsername(String username) {
+        if (username == null) {
+            return Optional.empty();
+        }
+
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(User.class)
+                .loadOptional(username);
+    }
+}
@@ -1,22 +1,59 @@
 package com.amigo.secreto.repositories;
 
+import com.amigo.secreto.dtos.UserSummaryDTO;
 import com.amigo.secreto.models.User;
+import com.amigo.secreto.repositories.projections.UserStatsProjection;
+import jakarta.persistence.QueryHint;
 import jakarta.validation.constraints.Email;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
-public interface UserRepository extends JpaRepository<User, UUID> {
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+
+// findByUsername vem de UserNaturalIdRepository (natural id com cache de segundo nível)
+public interface UserRepository extends JpaRepository<User, UUID>, UserNaturalIdRepository {
+    String SELECT_SUMMARY = "SELECT new com.amigo.secreto.dtos.UserSummaryDTO(u.id, u.username, u.wishItem) FROM User u ";
+
+    // O email não é natural id (só pode haver um por entidade), então usa o cache de consultas
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     Optional<User> findByEmail(@Email String email);
-    Optional<User> findByUsername(String username);
 
     @Query("SELECT COUNT(g) FROM Group g JOIN g.participants p WHERE p.id = :userId")
     int countParticipatingGroups(@Param("userId") UUID userId);
 
     @Query("SELECT COUNT(g) FROM Group g JOIN g.participants p WHERE p.id = :userId AND g.draw IS NOT NULL")
     int countParticipatingDraws(@Param("userId") UUID userId);
+
+    // Todos os contadores do painel em um único acesso: user_groups do usuário com o sorteio de cada grupo
+    @Query(value = """
+            SELECT COUNT(ug.group_id) AS "participatingGroups",
+                   COUNT(d.id) AS "participatingDraws",
+                   COUNT(ug.group_id) - COUNT(d.id) AS "pendingDraws",
+                   (SELECT COUNT(*) FROM tb_group g WHERE g.owner_id = :userId) AS "ownedGroups"
+            FROM user_groups ug
+            LEFT JOIN tb_draw d ON d.group_id = ug.group_id
+            WHERE ug.participant_id = :userId
+            """, nativeQuery = true)
+    UserStatsProjection findStats(@Param("userId") UUID userId);
+
+    @Query(SELECT_SUMMARY + "ORDER BY u.id")
+    List<UserSummaryDTO> findSummaries(Limit limit);
+
+    @Query(SELECT_SUMMARY + "WHERE u.id > :after ORDER BY u.id")
+    List<UserSummaryDTO> findSummariesAfter(@Param("after") UUID after, Limit limit);
+
+    // Projeção em DTO: nada entra no contexto de persistência, então a memória não cresce com a tabela
+    @Query(SELECT_SUMMARY + "ORDER BY u.id")
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    Stream<UserSummaryDTO> streamSummaries();
 }
\ No newline at end of file
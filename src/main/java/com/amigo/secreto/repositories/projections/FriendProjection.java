@@ -0,0 +1,11 @@
+package com.amigo.secreto.repositories.projections;
+
+import java.util.UUID;
+
+public interface FriendProjection {
+    UUID getFriendId();
+
+    String getFriendUsername();
+
+    String getWishItem();
+}
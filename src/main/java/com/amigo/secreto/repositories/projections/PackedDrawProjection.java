@@ -0,0 +1,12 @@
+package com.amigo.secreto.repositories.projections;
+
+import java.util.UUID;
+
+// Só as colunas do sorteio compactado; nos sorteios em draw_pairs os dois arrays vêm nulos
+public interface PackedDrawProjection {
+    UUID getId();
+
+    byte[] getParticipantOrder();
+
+    byte[] getPackedPairs();
+}
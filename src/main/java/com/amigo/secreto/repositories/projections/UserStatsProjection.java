@@ -0,0 +1,11 @@
+package com.amigo.secreto.repositories.projections;
+
+public interface UserStatsProjection {
+    long getParticipatingGroups();
+
+    long getParticipatingDraws();
+
+    long getPendingDraws();
+
+    long getOwnedGroups();
+}
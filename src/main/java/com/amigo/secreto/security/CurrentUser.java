@@ -0,0 +1,17 @@
+package com.amigo.secreto.security;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marca um parâmetro {@code User} de controller que deve receber o usuário autenticado. É o mesmo
+ * objeto que o SecurityFilter colocou no Authentication, então não há nova consulta ao banco.
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface CurrentUser {
+}
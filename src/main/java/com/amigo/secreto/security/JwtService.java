@@ -1,27 +1,76 @@
 package com.amigo.secreto.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jwt;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class JwtService {
 
     @Value("${jwt.secret}")
     private String secret;
-    
+
     @Value("${jwt.expiration:7200000}") // 2 horas por padrão
     private long expiration;
 
-    private SecretKey getSigninKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+    @Value("${jwt.verified-cache.enabled:false}")
+    private boolean verifiedCacheEnabled;
+
+    @Value("${jwt.verified-cache.max-size:10000}")
+    private long verifiedCacheMaxSize;
+
+    // Chave e parser são imutáveis e thread-safe; o JwtBuilder não é, por isso continua sendo criado por token
+    private SecretKey signingKey;
+    private JwtParser jwtParser;
+    private Cache<String, VerifiedToken> verifiedTokens;
+
+    private final MeterRegistry meterRegistry;
+    private final Timer validTokenTimer;
+    private final Timer invalidTokenTimer;
+
+    public JwtService(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        // Só a verificação de assinatura; acertos do cache de tokens aparecem em cache.gets{cache=jwt.verified}
+        this.validTokenTimer = Timer.builder("auth.jwt.verify")
+                .tag("outcome", "valid")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.invalidTokenTimer = Timer.builder("auth.jwt.verify")
+                .tag("outcome", "invalid")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+        jwtParser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+
+        if (verifiedCacheEnabled) {
+            verifiedTokens = Caffeine.newBuilder()
+                    .maximumSize(verifiedCacheMaxSize)
+                    .expireAfter(new TokenExpiry())
+                    .recordStats()
+                    .build();
+            CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, "jwt.verified");
+        }
     }
 
     public String generateToken(String email) {
@@ -29,23 +78,57 @@ public class JwtService {
                 .subject(email)
                 .issuedAt(new Date())
                 .expiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigninKey())
+                .signWith(signingKey)
                 .compact();
     }
 
     public String getSubject(String token) {
+        if (verifiedTokens != null) {
+            VerifiedToken cached = verifiedTokens.getIfPresent(token);
+            if (cached != null) {
+                return cached.subject();
+            }
+        }
+
+        Timer.Sample sample = Timer.start(meterRegistry);
         try {
-            Jwt<?, Claims> jwt = Jwts.parser()
-                    .verifyWith(getSigninKey())
-                    .build()
-                    .parseSignedClaims(token);
+            Claims claims = jwtParser.parseSignedClaims(token).getPayload();
+            sample.stop(validTokenTimer);
 
-            return jwt.getPayload().getSubject();
+            if (verifiedTokens != null && claims.getExpiration() != null) {
+                verifiedTokens.put(token, new VerifiedToken(claims.getSubject(), claims.getExpiration().getTime()));
+            }
+
+            return claims.getSubject();
 
         } catch (JwtException e) {
+            sample.stop(invalidTokenTimer);
             System.out.println("Erro ao validar token: " + e.getMessage());
             return null;
         }
     }
 
+    private record VerifiedToken(String subject, long expiresAtMillis) {
+    }
+
+    // Cada token fica no cache só até o próprio "exp"
+    private static class TokenExpiry implements Expiry<String, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(String token, VerifiedToken value, long currentTime) {
+            long remainingMillis = value.expiresAtMillis() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMillis));
+        }
+
+        @Override
+        public long expireAfterUpdate(String token, VerifiedToken value, long currentTime, long currentDuration) {
+            return expireAfterCreate(token, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String token, VerifiedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
 }
@@ -0,0 +1,69 @@
+package com.amigo.secreto.security;
+
+import com.amigo.secreto.models.User;
+import com.amigo.secreto.repositories.UserRepository;
+import com.amigo.secreto.services.events.UserChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Cache limitado dos usuários autenticados, indexado pelo subject do token. Evita uma
+ * consulta (com join de roles) por requisição; entradas expiram pelo TTL ou são removidas
+ * depois do commit que altera ou apaga o usuário.
+ */
+@Component
+public class PrincipalCache implements MeterBinder {
+
+    private final UserRepository userRepository;
+    private final Cache<String, User> cache;
+
+    public PrincipalCache(
+            UserRepository userRepository,
+            @Value("${security.principal-cache.max-size:10000}") long maxSize,
+            @Value("${security.principal-cache.ttl:5m}") Duration ttl
+    ) {
+        this.userRepository = userRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "principal");
+    }
+
+    public Optional<User> findByUsername(String username) {
+        User cached = cache.getIfPresent(username);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        Optional<User> user = userRepository.findByUsername(username);
+        user.ifPresent(found -> cache.put(username, found));
+        return user;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onUserChanged(UserChangedEvent event) {
+        evict(event.userId());
+    }
+
+    // Busca pelo id porque o username pode ter mudado na própria atualização
+    public void evict(UUID userId) {
+        cache.asMap().values().removeIf(user -> user.getId().equals(userId));
+    }
+}
@@ -1,6 +1,5 @@
 package com.amigo.secreto.security;
 
-import com.amigo.secreto.repositories.UserRepository;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -17,11 +16,11 @@ import java.io.IOException;
 public class SecurityFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
-    private final UserRepository userRepository;
+    private final PrincipalCache principalCache;
 
-    public SecurityFilter(JwtService jwtService, UserRepository userRepository) {
+    public SecurityFilter(JwtService jwtService, PrincipalCache principalCache) {
         this.jwtService = jwtService;
-        this.userRepository = userRepository;
+        this.principalCache = principalCache;
     }
 
     @Override
@@ -38,7 +37,7 @@ public class SecurityFilter extends OncePerRequestFilter {
                     return;
                 }
 
-                var user = userRepository.findByUsername(subject)
+                var user = principalCache.findByUsername(subject)
                         .orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado"));
 
                 var authentication = new UsernamePasswordAuthenticationToken(
@@ -10,7 +10,6 @@ import com.amigo.secreto.repositories.UserRepository;
 import com.amigo.secreto.security.JwtService;
 import com.amigo.secreto.services.exceptions.AccessDeniedException;
 import org.springframework.security.authentication.BadCredentialsException;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
@@ -71,8 +70,7 @@ public class AuthService {
         return new LoginResponseDTO(newUser.getId().toString() ,newUser.getUsername(), token, newUser.getRoles().stream().map(Role::getName).toList());
     }
 
-    public LoginResponseDTO registerAdmin(RegisterRequestDTO registerRequest) {
-        User currentUser = (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+    public LoginResponseDTO registerAdmin(RegisterRequestDTO registerRequest, User currentUser) {
         boolean isAdmin = currentUser.getRoles().stream().anyMatch(role -> role.getName().equals("ROLE_ADMIN"));
         if (!isAdmin) {
             throw new AccessDeniedException("Apenas administradores podem criar novos administradores");
@@ -0,0 +1,198 @@
+package com.amigo.secreto.services;
+
+import com.amigo.secreto.dtos.BatchDrawResponseDTO;
+import com.amigo.secreto.dtos.BatchDrawResultDTO;
+import com.amigo.secreto.dtos.BatchDrawResultDTO.Status;
+import com.amigo.secreto.models.Draw;
+import com.amigo.secreto.models.ExclusionRule;
+import com.amigo.secreto.models.Group;
+import com.amigo.secreto.models.User;
+import com.amigo.secreto.repositories.DrawRepository;
+import com.amigo.secreto.repositories.ExclusionRuleRepository;
+import com.amigo.secreto.repositories.GroupRepository;
+import com.amigo.secreto.services.exceptions.DrawAlreadyDoneException;
+import com.amigo.secreto.services.exceptions.DrawConstraintException;
+import com.amigo.secreto.services.exceptions.DrawPairNumberException;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Sorteio de vários grupos em uma só requisição. Os grupos são processados em blocos, cada um na sua
+ * própria transação: os grupos do bloco são carregados em uma consulta, os pares são gerados em paralelo
+ * em um ForkJoinPool próprio e os sorteios são gravados juntos, em lotes JDBC (hibernate.jdbc.batch_size).
+ * Cada grupo tem seu próprio resultado: se o commit de um bloco falhar porque um dos grupos foi sorteado
+ * por outra requisição, o bloco é refeito grupo a grupo e só o grupo em conflito fica sem sorteio.
+ */
+@Service
+public class BatchDrawService {
+
+    static final int MAX_GROUPS = 1000;
+    static final String CONCURRENT_DRAW = "Sorteio realizado simultaneamente por outra requisição";
+
+    private final GroupRepository groupRepository;
+    private final DrawRepository drawRepository;
+    private final ExclusionRuleRepository exclusionRuleRepository;
+    private final DrawService drawService;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+
+    public BatchDrawService(
+            GroupRepository groupRepository,
+            DrawRepository drawRepository,
+            ExclusionRuleRepository exclusionRuleRepository,
+            DrawService drawService,
+            EntityManager entityManager,
+            TransactionTemplate transactionTemplate,
+            @Value("${draw.batch.parallelism:0}") int parallelism,
+            @Value("${draw.batch.chunk-size:100}") int chunkSize
+    ) {
+        this.groupRepository = groupRepository;
+        this.drawRepository = drawRepository;
+        this.exclusionRuleRepository = exclusionRuleRepository;
+        this.drawService = drawService;
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+        this.chunkSize = Math.max(chunkSize, 1);
+        // Pool próprio para não disputar o commonPool com o resto da aplicação
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    public BatchDrawResponseDTO createDraws(List<UUID> groupIds, User currentUser) {
+        if (groupIds == null || groupIds.isEmpty()) {
+            throw new IllegalArgumentException("Informe pelo menos um grupo para sortear");
+        }
+
+        Set<UUID> requested = new LinkedHashSet<>(groupIds);
+        if (requested.size() > MAX_GROUPS) {
+            throw new IllegalArgumentException("É possível sortear no máximo " + MAX_GROUPS + " grupos por requisição");
+        }
+
+        List<UUID> ids = new ArrayList<>(requested);
+        Map<UUID, BatchDrawResultDTO> results = new HashMap<>();
+        for (int start = 0; start < ids.size(); start += chunkSize) {
+            List<UUID> chunk = ids.subList(start, Math.min(start + chunkSize, ids.size()));
+            try {
+                results.putAll(drawInTransaction(chunk, currentUser));
+            } catch (ConcurrencyFailureException | DataIntegrityViolationException e) {
+                // O bloco inteiro voltou atrás; refeito grupo a grupo, o grupo já sorteado sai como ALREADY_DRAWN
+                for (UUID groupId : chunk) {
+                    try {
+                        results.putAll(drawInTransaction(List.of(groupId), currentUser));
+                    } catch (ConcurrencyFailureException | DataIntegrityViolationException conflict) {
+                        results.put(groupId, failure(groupId, Status.ALREADY_DRAWN, CONCURRENT_DRAW));
+                    }
+                }
+            }
+        }
+
+        List<BatchDrawResultDTO> ordered = new ArrayList<>(requested.size());
+        int drawn = 0;
+        for (UUID groupId : requested) {
+            BatchDrawResultDTO result = results.get(groupId);
+            if (result.status() == Status.DRAWN) {
+                drawn++;
+            }
+            ordered.add(result);
+        }
+        return new BatchDrawResponseDTO(drawn, requested.size() - drawn, ordered);
+    }
+
+    private Map<UUID, BatchDrawResultDTO> drawInTransaction(List<UUID> groupIds, User currentUser) {
+        return transactionTemplate.execute(status -> drawChunk(groupIds, currentUser));
+    }
+
+    private Map<UUID, BatchDrawResultDTO> drawChunk(List<UUID> groupIds, User currentUser) {
+        Map<UUID, Group> groups = groupRepository.findForDrawByIdIn(groupIds).stream()
+                .collect(Collectors.toMap(Group::getId, Function.identity()));
+        Map<UUID, List<ExclusionRule>> exclusions = groups.isEmpty()
+                ? Map.of()
+                : exclusionRuleRepository.findByGroupIdIn(groups.keySet()).stream()
+                        .collect(Collectors.groupingBy(rule -> rule.getGroup().getId()));
+
+        Map<UUID, BatchDrawResultDTO> results = new HashMap<>();
+        List<DrawTask> tasks = new ArrayList<>();
+        for (UUID groupId : groupIds) {
+            Group group = groups.get(groupId);
+            if (group == null) {
+                results.put(groupId, failure(groupId, Status.NOT_FOUND, "Grupo de id " + groupId + " não encontrado"));
+            } else if (!group.getOwnerId().equals(currentUser.getId())) {
+                results.put(groupId, failure(groupId, Status.FORBIDDEN, "Apenas o criador do grupo pode realizar o sorteio"));
+            } else {
+                try {
+                    drawService.validateDrawConditions(group);
+                    // Cópias feitas aqui: as coleções do Hibernate não são lidas pelas threads do pool
+                    tasks.add(new DrawTask(group, new ArrayList<>(group.getParticipants()),
+                            List.copyOf(exclusions.getOrDefault(groupId, List.of()))));
+                } catch (DrawAlreadyDoneException e) {
+                    results.put(groupId, failure(groupId, Status.ALREADY_DRAWN, e.getMessage()));
+                } catch (DrawPairNumberException e) {
+                    results.put(groupId, failure(groupId, Status.FAILED, e.getMessage()));
+                }
+            }
+        }
+
+        List<GeneratedDraw> generated = pool.submit(() -> tasks.parallelStream()
+                        .map(this::generate)
+                        .toList())
+                .join();
+
+        List<Draw> draws = new ArrayList<>(generated.size());
+        for (GeneratedDraw result : generated) {
+            Group group = result.group();
+            if (result.draw() == null) {
+                results.put(group.getId(), failure(group.getId(), Status.FAILED, result.error()));
+                continue;
+            }
+
+            // Mesma proteção do sorteio individual contra dois sorteios simultâneos do grupo
+            entityManager.lock(group, LockModeType.OPTIMISTIC_FORCE_INCREMENT);
+            draws.add(result.draw());
+        }
+
+        drawRepository.saveAll(draws);
+
+        for (Draw draw : draws) {
+            Group group = draw.getGroup();
+            group.setDraw(draw);
+            drawService.drawCompleted(draw);
+            results.put(group.getId(), new BatchDrawResultDTO(group.getId(), Status.DRAWN, draw.getId(), null));
+        }
+        return results;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdown();
+    }
+
+    private GeneratedDraw generate(DrawTask task) {
+        try {
+            return new GeneratedDraw(task.group(), drawService.buildDraw(task.group(), task.participants(), task.exclusions()), null);
+        } catch (DrawConstraintException | IllegalArgumentException e) {
+            return new GeneratedDraw(task.group(), null, e.getMessage());
+        }
+    }
+
+    private static BatchDrawResultDTO failure(UUID groupId, Status status, String message) {
+        return new BatchDrawResultDTO(groupId, status, null, message);
+    }
+
+    private record DrawTask(Group group, List<User> participants, List<ExclusionRule> exclusions) {
+    }
+
+    private record GeneratedDraw(Group group, Draw draw, String error) {
+    }
+}
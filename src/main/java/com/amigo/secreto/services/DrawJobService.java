@@ -0,0 +1,186 @@
+package com.amigo.secreto.services;
+
+import com.amigo.secreto.dtos.DrawJobDTO;
+import com.amigo.secreto.dtos.GroupSummaryDTO;
+import com.amigo.secreto.mappers.DrawJobMapper;
+import com.amigo.secreto.models.DrawJob;
+import com.amigo.secreto.models.DrawJobStatus;
+import com.amigo.secreto.models.User;
+import com.amigo.secreto.repositories.DrawJobRepository;
+import com.amigo.secreto.repositories.DrawRepository;
+import com.amigo.secreto.repositories.GroupRepository;
+import com.amigo.secreto.services.exceptions.DrawAlreadyDoneException;
+import com.amigo.secreto.services.exceptions.DrawConstraintException;
+import com.amigo.secreto.services.exceptions.DrawPairNumberException;
+import com.amigo.secreto.services.exceptions.ForbiddenException;
+import com.amigo.secreto.services.exceptions.ResourceNotFoundException;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Fila de sorteios assíncronos. Os jobs ficam na tabela tb_draw_job e são executados por um
+ * pool limitado; se o pool estiver cheio o job continua PENDING e é reenviado pelo agendador.
+ */
+@Service
+public class DrawJobService {
+
+    // Mensagens fixas: o campo error é exibido ao usuário e não deve trazer texto de SQL ou de lock
+    static final String CONCURRENT_DRAW = "Sorteio realizado simultaneamente por outra requisição";
+    static final String UNEXPECTED_ERROR = "Erro inesperado ao realizar o sorteio";
+
+    private final DrawJobRepository drawJobRepository;
+    private final GroupRepository groupRepository;
+    private final DrawRepository drawRepository;
+    private final DrawService drawService;
+    private final ThreadPoolTaskExecutor executor;
+    private final int queueCapacity;
+
+    public DrawJobService(
+            DrawJobRepository drawJobRepository,
+            GroupRepository groupRepository,
+            DrawRepository drawRepository,
+            DrawService drawService,
+            @Value("${draw.jobs.pool-size:2}") int poolSize,
+            @Value("${draw.jobs.queue-capacity:100}") int queueCapacity
+    ) {
+        this.drawJobRepository = drawJobRepository;
+        this.groupRepository = groupRepository;
+        this.drawRepository = drawRepository;
+        this.drawService = drawService;
+        this.queueCapacity = queueCapacity;
+
+        // Pool próprio (e não um bean Executor) para não substituir o executor padrão do Spring MVC
+        this.executor = new ThreadPoolTaskExecutor();
+        this.executor.setCorePoolSize(poolSize);
+        this.executor.setMaxPoolSize(poolSize);
+        this.executor.setQueueCapacity(queueCapacity);
+        this.executor.setThreadNamePrefix("draw-job-");
+        this.executor.initialize();
+    }
+
+    public DrawJobDTO enqueue(UUID groupId, User currentUser) {
+        GroupSummaryDTO group = groupRepository.findSummaryById(groupId)
+                .orElseThrow(() -> new ResourceNotFoundException("Grupo de id " + groupId + " não encontrado"));
+
+        if (!group.ownerId().equals(currentUser.getId())) {
+            throw new ForbiddenException("Apenas o criador do grupo pode realizar o sorteio");
+        }
+
+        if (group.alreadyDrawn()) {
+            throw new DrawAlreadyDoneException("Sorteio já realizado para o grupo de id " + groupId);
+        }
+
+        DrawJob job = new DrawJob();
+        job.setGroupId(groupId);
+        job.setRequestedBy(currentUser.getId());
+        job = drawJobRepository.save(job);
+
+        submit(job.getId());
+        return DrawJobMapper.toDrawJobDTO(job);
+    }
+
+    public DrawJobDTO findById(UUID jobId, User currentUser) {
+        DrawJob job = drawJobRepository.findById(jobId)
+                .orElseThrow(() -> new ResourceNotFoundException("Job de sorteio de id " + jobId + " não encontrado"));
+
+        if (!job.getRequestedBy().equals(currentUser.getId())) {
+            throw new ForbiddenException("Apenas quem solicitou o sorteio pode consultar o job");
+        }
+
+        return DrawJobMapper.toDrawJobDTO(job);
+    }
+
+    // Jobs que estavam rodando quando a aplicação parou voltam para a fila
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverInterruptedJobs() {
+        drawJobRepository.transitionAll(DrawJobStatus.RUNNING, DrawJobStatus.PENDING);
+    }
+
+    @Scheduled(fixedDelayString = "${draw.jobs.poll-interval:5s}")
+    public void dispatchPending() {
+        // Enquanto há jobs na fila do pool, os pendentes já foram enviados
+        if (!executor.getThreadPoolExecutor().getQueue().isEmpty()) {
+            return;
+        }
+
+        drawJobRepository.findByStatusOrderByCreatedAtAsc(DrawJobStatus.PENDING, Limit.of(queueCapacity))
+                .forEach(job -> submit(job.getId()));
+    }
+
+    void run(UUID jobId) {
+        if (drawJobRepository.transition(jobId, DrawJobStatus.PENDING, DrawJobStatus.RUNNING) == 0) {
+            return;
+        }
+
+        DrawJob job = drawJobRepository.findById(jobId)
+                .orElseThrow(() -> new ResourceNotFoundException("Job de sorteio de id " + jobId + " não encontrado"));
+
+        // Qualquer saída (inclusive um Error) grava um status final; o job nunca fica RUNNING
+        job.setStatus(DrawJobStatus.FAILED);
+        job.setError(UNEXPECTED_ERROR);
+        try {
+            job.setDrawId(drawService.createDrawFor(job.getGroupId(), job.getRequestedBy()));
+            job.setStatus(DrawJobStatus.DONE);
+            job.setError(null);
+        } catch (DrawAlreadyDoneException | ConcurrencyFailureException | DataIntegrityViolationException e) {
+            // O sorteio já existe: feito por este job antes de uma parada (o status não chegou a ser
+            // gravado) ou por outra requisição. Em ambos os casos o grupo está sorteado
+            linkExistingDraw(job, e);
+        } catch (DrawPairNumberException | DrawConstraintException | ResourceNotFoundException | ForbiddenException e) {
+            job.setError(e.getMessage());
+        } finally {
+            job.setUpdatedAt(LocalDateTime.now());
+            saveFinalStatus(job);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    private void linkExistingDraw(DrawJob job, RuntimeException cause) {
+        Optional<UUID> drawId = drawRepository.findIdByGroupId(job.getGroupId());
+        if (drawId.isPresent()) {
+            job.setDrawId(drawId.get());
+            job.setStatus(DrawJobStatus.DONE);
+            job.setError(null);
+        } else if (cause instanceof DrawAlreadyDoneException) {
+            job.setError(cause.getMessage());
+        } else {
+            job.setError(CONCURRENT_DRAW);
+        }
+    }
+
+    private void saveFinalStatus(DrawJob job) {
+        try {
+            drawJobRepository.save(job);
+        } catch (RuntimeException e) {
+            // O sorteio pode já estar gravado; o job volta para a fila e a nova execução
+            // encontra o sorteio existente e marca DONE em vez de ficar RUNNING para sempre
+            drawJobRepository.transition(job.getId(), DrawJobStatus.RUNNING, DrawJobStatus.PENDING);
+            throw e;
+        }
+    }
+
+    private void submit(UUID jobId) {
+        try {
+            executor.execute(() -> run(jobId));
+        } catch (TaskRejectedException e) {
+            // Pool cheio: o job continua PENDING e o agendador envia de novo depois
+        }
+    }
+}
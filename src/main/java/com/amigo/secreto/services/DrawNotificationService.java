@@ -0,0 +1,154 @@
+package com.amigo.secreto.services;
+
+import com.amigo.secreto.repositories.DrawRepository;
+import com.amigo.secreto.repositories.GroupRepository;
+import com.amigo.secreto.services.events.DrawCompletedEvent;
+import com.amigo.secreto.services.exceptions.ForbiddenException;
+import com.amigo.secreto.services.exceptions.ResourceNotFoundException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Avisa por SSE os participantes que estão esperando o sorteio de um grupo, no lugar de consultas
+ * repetidas a /draws/my-friend. Cada conexão aberta é só um SseEmitter em um mapa por grupo (a
+ * requisição fica assíncrona e não prende thread); quando o sorteio é confirmado no banco, todos os
+ * inscritos do grupo recebem um único evento "draw-completed" e a conexão é encerrada.
+ */
+@Service
+public class DrawNotificationService {
+
+    static final String EVENT_NAME = "draw-completed";
+
+    private final GroupRepository groupRepository;
+    private final DrawRepository drawRepository;
+    private final ObjectMapper objectMapper;
+    private final Duration timeout;
+    private final ThreadPoolTaskExecutor executor;
+    private final Map<UUID, Set<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+
+    public DrawNotificationService(
+            GroupRepository groupRepository,
+            DrawRepository drawRepository,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${draw.events.timeout:30m}") Duration timeout,
+            @Value("${draw.events.pool-size:2}") int poolSize
+    ) {
+        this.groupRepository = groupRepository;
+        this.drawRepository = drawRepository;
+        this.objectMapper = objectMapper;
+        this.timeout = timeout;
+
+        // O envio para milhares de conexões não acontece na thread que fez o commit do sorteio
+        this.executor = new ThreadPoolTaskExecutor();
+        this.executor.setCorePoolSize(poolSize);
+        this.executor.setMaxPoolSize(poolSize);
+        this.executor.setThreadNamePrefix("draw-events-");
+        this.executor.initialize();
+
+        Gauge.builder("draw.events.subscribers", subscriberCount, AtomicInteger::get)
+                .description("Conexões SSE esperando um sorteio")
+                .register(meterRegistry);
+    }
+
+    public SseEmitter subscribe(UUID groupId, UUID userId) {
+        if (!groupRepository.existsParticipant(groupId, userId)) {
+            if (!groupRepository.existsById(groupId)) {
+                throw new ResourceNotFoundException("Grupo de id " + groupId + " não encontrado");
+            }
+            throw new ForbiddenException("Apenas participantes do grupo podem acompanhar o sorteio");
+        }
+
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        emitter.onCompletion(() -> unsubscribe(groupId, emitter));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(error -> unsubscribe(groupId, emitter));
+
+        // Inscreve antes de consultar: um sorteio confirmado entre as duas etapas não se perde
+        subscribers.compute(groupId, (id, emitters) -> {
+            Set<SseEmitter> current = emitters != null ? emitters : ConcurrentHashMap.newKeySet();
+            current.add(emitter);
+            return current;
+        });
+        subscriberCount.incrementAndGet();
+
+        drawRepository.findIdByGroupId(groupId).ifPresent(drawId -> {
+            unsubscribe(groupId, emitter);
+            DrawCompletedEvent event = new DrawCompletedEvent(groupId, drawId);
+            send(emitter, event, toJson(event));
+        });
+
+        return emitter;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onDrawCompleted(DrawCompletedEvent event) {
+        Set<SseEmitter> emitters = subscribers.remove(event.groupId());
+        if (emitters == null) {
+            return;
+        }
+        subscriberCount.addAndGet(-emitters.size());
+
+        // O JSON é gerado uma vez e reaproveitado para todas as conexões do grupo
+        String payload = toJson(event);
+        executor.execute(() -> emitters.forEach(emitter -> send(emitter, event, payload)));
+    }
+
+    int subscriberCount() {
+        return subscriberCount.get();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+        subscribers.values().forEach(emitters -> emitters.forEach(SseEmitter::complete));
+    }
+
+    private void unsubscribe(UUID groupId, SseEmitter emitter) {
+        subscribers.computeIfPresent(groupId, (id, emitters) -> {
+            if (emitters.remove(emitter)) {
+                subscriberCount.decrementAndGet();
+            }
+            return emitters.isEmpty() ? null : emitters;
+        });
+    }
+
+    private static void send(SseEmitter emitter, DrawCompletedEvent event, String payload) {
+        try {
+            emitter.send(SseEmitter.event()
+                    .name(EVENT_NAME)
+                    .id(event.drawId().toString())
+                    .data(payload));
+            emitter.complete();
+        } catch (IOException | IllegalStateException e) {
+            // Cliente já desconectou ou a conexão já foi encerrada
+            emitter.completeWithError(e);
+        }
+    }
+
+    private String toJson(DrawCompletedEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -4,146 +4,278 @@ import com.amigo.secreto.dtos.DrawResponseDTO;
 import com.amigo.secreto.dtos.FriendDrawDTO;
 import com.amigo.secreto.mappers.DrawMapper;
 import com.amigo.secreto.models.Draw;
+import com.amigo.secreto.models.ExclusionRule;
 import com.amigo.secreto.models.Group;
+import com.amigo.secreto.models.PackedPairs;
+import com.amigo.secreto.models.PairingMode;
 import com.amigo.secreto.models.User;
 import com.amigo.secreto.repositories.DrawRepository;
 import com.amigo.secreto.repositories.GroupRepository;
 import com.amigo.secreto.repositories.UserRepository;
+import com.amigo.secreto.repositories.projections.FriendProjection;
+import com.amigo.secreto.repositories.projections.PackedDrawProjection;
+import com.amigo.secreto.services.events.DrawCompletedEvent;
 import com.amigo.secreto.services.exceptions.DrawAlreadyDoneException;
+import com.amigo.secreto.services.exceptions.DrawConstraintException;
 import com.amigo.secreto.services.exceptions.DrawPairNumberException;
 import com.amigo.secreto.services.exceptions.ForbiddenException;
 import com.amigo.secreto.services.exceptions.ResourceNotFoundException;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
+import com.amigo.secreto.services.pairing.ConstrainedPairingEngine;
+import com.amigo.secreto.services.pairing.PairingEngines;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 @Service
 public class DrawService {
+    static final String SINGLE_CYCLE_WITH_EXCLUSIONS =
+            "Grupos no modo SINGLE_CYCLE não aceitam restrições: com pares proibidos o ciclo único não pode ser garantido";
+
     private final DrawRepository drawRepository;
     private final GroupRepository groupRepository;
     private final UserRepository userRepository;
+    private final PairingEngines pairingEngines;
+    private final ConstrainedPairingEngine constrainedPairingEngine;
+    private final MeterRegistry meterRegistry;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Timer mappingTimer;
+    private final DistributionSummary repairedPairs;
+
+    // A partir deste número de participantes os pares são gravados compactados (0 desativa)
+    @Value("${draw.storage.packed-threshold:0}")
+    private int packedThreshold;
 
-    public DrawService(DrawRepository drawRepository, GroupRepository groupRepository, UserRepository userRepository) {
+    public DrawService(DrawRepository drawRepository, GroupRepository groupRepository, UserRepository userRepository,
+                       PairingEngines pairingEngines, ConstrainedPairingEngine constrainedPairingEngine,
+                       MeterRegistry meterRegistry, ApplicationEventPublisher eventPublisher) {
         this.drawRepository = drawRepository;
         this.groupRepository = groupRepository;
         this.userRepository = userRepository;
+        this.pairingEngines = pairingEngines;
+        this.constrainedPairingEngine = constrainedPairingEngine;
+        this.meterRegistry = meterRegistry;
+        this.eventPublisher = eventPublisher;
+        this.mappingTimer = Timer.builder("draw.mapping")
+                .description("Tempo para montar o DrawResponseDTO")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        // Os engines não fazem novas tentativas; o trabalho extra vem dos pares refeitos para atender às exclusões
+        this.repairedPairs = DistributionSummary.builder("draw.pairing.repairs")
+                .description("Pares do sorteio inicial refeitos pelo ConstrainedPairingEngine")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    @Transactional
+    public DrawResponseDTO createDraw(UUID groupId, User currentUser) {
+        return toResponse(drawGroup(groupId, currentUser.getId()));
     }
 
-    public DrawResponseDTO createDraw(UUID groupId) {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String currentUsername = authentication.getName();
-        User currentUser = userRepository.findByUsername(currentUsername)
-                .orElseThrow(() -> new ResourceNotFoundException("Usuário não encontrado"));
+    // Usado pelos jobs assíncronos, que rodam fora da requisição e não têm usuário autenticado
+    @Transactional
+    public UUID createDrawFor(UUID groupId, UUID requesterId) {
+        return drawGroup(groupId, requesterId).getId();
+    }
 
-        Group group = groupRepository.findById(groupId)
+    private Draw drawGroup(UUID groupId, UUID requesterId) {
+        Group group = groupRepository.findForDrawById(groupId)
                 .orElseThrow(() -> new ResourceNotFoundException("Grupo de id " + groupId + " não encontrado"));
 
-        if (!group.getOwnerId().equals(currentUser.getId())) {
+        if (!group.getOwnerId().equals(requesterId)) {
             throw new ForbiddenException("Apenas o criador do grupo pode realizar o sorteio");
         }
 
         validateDrawConditions(group);
 
-        Map<UUID, UUID> pairs = generatePairs(group.getParticipants());
-
-        Draw draw = new Draw();
-        draw.setGroup(group);
-        draw.setPairs(pairs);
+        Draw draw = buildDraw(group, new ArrayList<>(group.getParticipants()), group.getExclusions());
         drawRepository.save(draw);
 
         group.setDraw(draw);
         groupRepository.save(group);
+        drawCompleted(draw);
+
+        return draw;
+    }
 
-        return DrawMapper.toDrawResponseDTO(draw);
+    // Os inscritos em /draws/events só são avisados depois do commit (DrawNotificationService)
+    void drawCompleted(Draw draw) {
+        eventPublisher.publishEvent(new DrawCompletedEvent(draw.getGroup().getId(), draw.getId()));
     }
 
     public DrawResponseDTO getDraw(UUID drawId) {
-        Draw draw = drawRepository.findById(drawId)
+        Draw draw = drawRepository.findWithGroupById(drawId)
                 .orElseThrow(() -> new ResourceNotFoundException("Sorteio de id " + drawId + " não encontrado"));
-        return DrawMapper.toDrawResponseDTO(draw);
+        return toResponse(draw);
     }
 
-    public FriendDrawDTO getMyFriend(UUID groupId) {
-
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String currentUsername = authentication.getName();
-        User currentUser = userRepository.findByUsername(currentUsername)
-                .orElseThrow(() -> new ResourceNotFoundException("Usuário não encontrado"));
-
-        Group group = groupRepository.findById(groupId)
-                .orElseThrow(() -> new ResourceNotFoundException("Grupo de id " + groupId + " não encontrado"));
-
-        if (!group.isAlreadyDrawn()) {
-            throw new ResourceNotFoundException("O sorteio ainda não foi realizado para este grupo");
-        }
+    private DrawResponseDTO toResponse(Draw draw) {
+        return mappingTimer.record(() -> DrawMapper.toDrawResponseDTO(draw));
+    }
 
-        boolean isParticipant = group.getParticipants().stream()
-                .anyMatch(participant -> participant.getId().equals(currentUser.getId()));
-        if (!isParticipant) {
-            throw new ResourceNotFoundException("Você não é participante deste grupo");
+    public FriendDrawDTO getMyFriend(UUID groupId, User currentUser) {
+        Optional<FriendProjection> friend = drawRepository.findFriend(groupId, currentUser.getId());
+        if (friend.isPresent()) {
+            return toFriendDrawDTO(friend.get().getFriendId(), friend.get().getFriendUsername(), friend.get().getWishItem());
         }
 
-        Draw draw = Optional.ofNullable(group.getDraw())
-                .orElseGet(() -> drawRepository.findByGroupId(groupId)
-                        .orElseThrow(() -> new ResourceNotFoundException("Sorteio não encontrado para o grupo " + groupId)));
-
-        Map<UUID, UUID> pairs = draw.getPairs();
-        UUID friendId = pairs.get(currentUser.getId());
+        // Sorteios compactados não têm linhas em draw_pairs: só a posição de quem pediu é decodificada.
+        // Para os demais, a consulta só distingue sorteio pendente de quem não participa
+        PackedDrawProjection draw = drawRepository.findPackedByGroupId(groupId)
+                .orElseThrow(() -> drawNotFound(groupId));
 
+        UUID friendId = draw.getPackedPairs() != null
+                ? new PackedPairs(draw.getParticipantOrder(), draw.getPackedPairs()).receiverOf(currentUser.getId())
+                : null;
         if (friendId == null) {
-            throw new ResourceNotFoundException("Você não possui um amigo sorteado neste grupo");
+            throw new ResourceNotFoundException("Você não é participante deste grupo");
         }
 
-        User friend = userRepository.findById(friendId)
+        // Usuários ficam no cache de segundo nível, então em geral esta busca não vai ao banco
+        User friendUser = userRepository.findById(friendId)
                 .orElseThrow(() -> new ResourceNotFoundException("Amigo sorteado não encontrado"));
+        return toFriendDrawDTO(friendUser.getId(), friendUser.getUsername(), friendUser.getWishItem());
+    }
 
+    private FriendDrawDTO toFriendDrawDTO(UUID friendId, String friendUsername, String wishItem) {
         return new FriendDrawDTO(
-                friend.getId(),
-                friend.getUsername(),
-                friend.getWishItem() != null ? friend.getWishItem() : "Nenhum item desejado cadastrado"
+                friendId,
+                friendUsername,
+                wishItem != null ? wishItem : "Nenhum item desejado cadastrado"
         );
     }
 
-    private void validateDrawConditions(Group group) {
+    private ResourceNotFoundException drawNotFound(UUID groupId) {
+        if (!groupRepository.existsById(groupId)) {
+            return new ResourceNotFoundException("Grupo de id " + groupId + " não encontrado");
+        }
+
+        return new ResourceNotFoundException("O sorteio ainda não foi realizado para este grupo");
+    }
+
+    void validateDrawConditions(Group group) {
         if (group.getDraw() != null) {
             throw new DrawAlreadyDoneException("Sorteio já realizado para o grupo de id " + group.getId());
         }
 
-        List<User> participants = group.getParticipants();
-        if (participants.size() < 2) {
+        // Qualquer número de participantes a partir de 2 tem desarranjo (inclusive ímpar)
+        if (group.getParticipants().size() < 2) {
             throw new DrawPairNumberException("O grupo precisa ter pelo menos 2 participantes para realizar o sorteio.");
         }
+    }
+
+    // Só gera os pares, sem tocar no banco nem no grupo; por isso também pode rodar em paralelo (BatchDrawService)
+    Draw buildDraw(Group group, List<User> participants, Collection<ExclusionRule> exclusions) {
+        PairingMode mode = group.getPairingMode();
+        boolean packed = packedThreshold > 0 && participants.size() >= packedThreshold;
+        Timer.Sample sample = Timer.start(meterRegistry);
+
+        Draw draw = new Draw();
+        draw.setGroup(group);
+        if (packed) {
+            draw.setPacked(generatePackedPairs(participants, exclusions, mode));
+        } else {
+            draw.setPairs(generatePairs(participants, exclusions, mode));
+        }
+
+        sample.stop(Timer.builder("draw.generation")
+                .description("Tempo para gerar os pares de um sorteio")
+                .tag("size", sizeBucket(participants.size()))
+                .tag("mode", mode.name())
+                .tag("storage", packed ? "packed" : "pairs")
+                .tag("constrained", String.valueOf(!exclusions.isEmpty()))
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+        return draw;
+    }
+
+    // Faixas fixas para a tag não ter um valor por tamanho de grupo
+    static String sizeBucket(int participants) {
+        if (participants < 10) {
+            return "2-9";
+        }
+        if (participants < 100) {
+            return "10-99";
+        }
+        if (participants < 1_000) {
+            return "100-999";
+        }
+        if (participants < 10_000) {
+            return "1000-9999";
+        }
+        return "10000+";
+    }
+
+    Map<UUID, UUID> generatePairs(List<User> participants, Collection<ExclusionRule> exclusions, PairingMode mode) {
+        int size = participants.size();
+        int[] receivers = generateReceivers(participants.stream().map(User::getId).toList(), exclusions, mode);
 
-        if (participants.size() % 2 != 0) {
-            throw new DrawPairNumberException("Número de participantes precisa ser par");
+        Map<UUID, UUID> pairs = new HashMap<>((int) (size / 0.75f) + 1);
+        for (int giver = 0; giver < size; giver++) {
+            pairs.put(participants.get(giver).getId(), participants.get(receivers[giver]).getId());
         }
+        return pairs;
     }
 
-    private Map<UUID, UUID> generatePairs(List<User> participants) {
-        Map<UUID, UUID> pairs = new HashMap<>();
-        List<UUID> receivers = participants.stream().map(User::getId).collect(Collectors.toList());
-        List<UUID> givers = new ArrayList<>(receivers);
+    PackedPairs generatePackedPairs(List<User> participants, Collection<ExclusionRule> exclusions, PairingMode mode) {
+        // A ordem por id é a que o PackedPairs usa na busca binária
+        List<UUID> sortedIds = participants.stream()
+                .map(User::getId)
+                .sorted()
+                .toList();
 
-        Random random = new Random();
-        for (User participant : participants) {
-            UUID giverId = participant.getId();
-            int index;
-            do {
-                index = random.nextInt(receivers.size());
-            } while (receivers.get(index).equals(giverId) && receivers.size() > 1);
+        return PackedPairs.encode(sortedIds, generateReceivers(sortedIds, exclusions, mode));
+    }
 
-            pairs.put(giverId, receivers.get(index));
-            receivers.remove(index);
+    // Sem restrições basta o engine do modo do grupo; com restrições ele é só o ponto de partida do
+    // ConstrainedPairingEngine. O reparo não preserva o ciclo único, por isso SINGLE_CYCLE não aceita restrições
+    private int[] generateReceivers(List<UUID> participantIds, Collection<ExclusionRule> exclusions, PairingMode mode) {
+        int size = participantIds.size();
+        int[] receivers = pairingEngines.forMode(mode).generate(size);
+        if (exclusions.isEmpty()) {
+            return receivers;
         }
 
-        // Validar se não há ninguém tirando a si mesmo no último caso
-        if (pairs.entrySet().stream().anyMatch(e -> e.getKey().equals(e.getValue()))) {
-            return generatePairs(participants); // Tentar novamente se houver match próprio
+        Map<UUID, Integer> positions = new HashMap<>((int) (size / 0.75f) + 1);
+        for (int i = 0; i < size; i++) {
+            positions.put(participantIds.get(i), i);
         }
 
-        return pairs;
+        BitSet[] forbidden = new BitSet[size];
+        int applied = 0;
+        for (ExclusionRule rule : exclusions) {
+            Integer giver = positions.get(rule.getGiverId());
+            Integer receiver = positions.get(rule.getReceiverId());
+            // Regras de quem saiu do grupo são ignoradas
+            if (giver != null && receiver != null) {
+                if (forbidden[giver] == null) {
+                    forbidden[giver] = new BitSet(size);
+                }
+                forbidden[giver].set(receiver);
+                applied++;
+            }
+        }
+
+        if (applied == 0) {
+            return receivers;
+        }
+        if (mode == PairingMode.SINGLE_CYCLE) {
+            throw new DrawConstraintException(SINGLE_CYCLE_WITH_EXCLUSIONS);
+        }
+
+        int[] repaired = constrainedPairingEngine.repair(receivers, forbidden);
+        int changed = 0;
+        for (int i = 0; i < size; i++) {
+            if (repaired[i] != receivers[i]) {
+                changed++;
+            }
+        }
+        repairedPairs.record(changed);
+        return repaired;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,150 @@
+package com.amigo.secreto.services;
+
+import com.amigo.secreto.dtos.ExclusionRuleDTO;
+import com.amigo.secreto.dtos.ExclusionRuleRequestDTO;
+import com.amigo.secreto.mappers.ExclusionRuleMapper;
+import com.amigo.secreto.models.Draw;
+import com.amigo.secreto.models.ExclusionRule;
+import com.amigo.secreto.models.Group;
+import com.amigo.secreto.models.PairingMode;
+import com.amigo.secreto.models.User;
+import com.amigo.secreto.repositories.DrawRepository;
+import com.amigo.secreto.repositories.ExclusionRuleRepository;
+import com.amigo.secreto.repositories.GroupRepository;
+import com.amigo.secreto.services.exceptions.DrawAlreadyDoneException;
+import com.amigo.secreto.services.exceptions.DrawConstraintException;
+import com.amigo.secreto.services.exceptions.ForbiddenException;
+import com.amigo.secreto.services.exceptions.ResourceNotFoundException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+@Service
+public class ExclusionRuleService {
+
+    private final ExclusionRuleRepository exclusionRuleRepository;
+    private final GroupRepository groupRepository;
+    private final DrawRepository drawRepository;
+
+    public ExclusionRuleService(ExclusionRuleRepository exclusionRuleRepository, GroupRepository groupRepository,
+                                DrawRepository drawRepository) {
+        this.exclusionRuleRepository = exclusionRuleRepository;
+        this.groupRepository = groupRepository;
+        this.drawRepository = drawRepository;
+    }
+
+    public List<ExclusionRuleDTO> findByGroup(UUID groupId) {
+        if (!groupRepository.existsById(groupId)) {
+            throw new ResourceNotFoundException("Grupo de id " + groupId + " não encontrado.");
+        }
+
+        return exclusionRuleRepository.findByGroupIdOrderByGiverId(groupId).stream()
+                .map(ExclusionRuleMapper::toExclusionRuleDTO)
+                .toList();
+    }
+
+    @Transactional
+    public List<ExclusionRuleDTO> add(UUID groupId, ExclusionRuleRequestDTO dto, User currentUser) {
+        if (dto.giverId() == null || dto.receiverId() == null) {
+            throw new IllegalArgumentException("Informe quem dá e quem recebe o presente");
+        }
+        if (dto.giverId().equals(dto.receiverId())) {
+            throw new IllegalArgumentException("Um participante nunca tira a si mesmo; a restrição é desnecessária");
+        }
+
+        Group group = findEditableGroup(groupId, currentUser);
+        requireRulesAllowed(group);
+        Set<UUID> participantIds = participantIds(group);
+        for (UUID userId : List.of(dto.giverId(), dto.receiverId())) {
+            if (!participantIds.contains(userId)) {
+                throw new ResourceNotFoundException("Usuário de id " + userId + " não participa do grupo");
+            }
+        }
+
+        Set<List<UUID>> existing = existingRules(group);
+        List<ExclusionRule> created = new ArrayList<>(2);
+        addIfAbsent(group, dto.giverId(), dto.receiverId(), existing, created);
+        if (dto.mutual()) {
+            addIfAbsent(group, dto.receiverId(), dto.giverId(), existing, created);
+        }
+
+        return exclusionRuleRepository.saveAll(created).stream()
+                .map(ExclusionRuleMapper::toExclusionRuleDTO)
+                .toList();
+    }
+
+    // Impede que os pares de um sorteio anterior (ex.: o do ano passado) se repitam neste grupo
+    @Transactional
+    public List<ExclusionRuleDTO> importFromDraw(UUID groupId, UUID drawId, User currentUser) {
+        Group group = findEditableGroup(groupId, currentUser);
+        requireRulesAllowed(group);
+        Draw previous = drawRepository.findById(drawId)
+                .orElseThrow(() -> new ResourceNotFoundException("Sorteio de id " + drawId + " não encontrado"));
+
+        Set<UUID> participantIds = participantIds(group);
+        Set<List<UUID>> existing = existingRules(group);
+        List<ExclusionRule> created = new ArrayList<>();
+        previous.forEachPair((giverId, receiverId) -> {
+            if (participantIds.contains(giverId) && participantIds.contains(receiverId)) {
+                addIfAbsent(group, giverId, receiverId, existing, created);
+            }
+        });
+
+        return exclusionRuleRepository.saveAll(created).stream()
+                .map(ExclusionRuleMapper::toExclusionRuleDTO)
+                .toList();
+    }
+
+    @Transactional
+    public void delete(UUID groupId, UUID ruleId, User currentUser) {
+        findEditableGroup(groupId, currentUser);
+        ExclusionRule rule = exclusionRuleRepository.findByIdAndGroupId(ruleId, groupId)
+                .orElseThrow(() -> new ResourceNotFoundException("Restrição de id " + ruleId + " não encontrada no grupo"));
+        exclusionRuleRepository.delete(rule);
+    }
+
+    // Mesmo lock do sorteio (OPTIMISTIC_FORCE_INCREMENT): se um sorteio concorrente confirmar antes,
+    // esta transação falha no commit em vez de gravar uma restrição que o sorteio não considerou
+    private Group findEditableGroup(UUID groupId, User currentUser) {
+        Group group = groupRepository.findForDrawById(groupId)
+                .orElseThrow(() -> new ResourceNotFoundException("Grupo de id " + groupId + " não encontrado."));
+
+        if (!group.getOwnerId().equals(currentUser.getId())) {
+            throw new ForbiddenException("Apenas o criador do grupo pode alterar as restrições do sorteio");
+        }
+
+        if (group.isAlreadyDrawn()) {
+            throw new DrawAlreadyDoneException("Sorteio já realizado para o grupo de id " + groupId);
+        }
+        return group;
+    }
+
+    private static void requireRulesAllowed(Group group) {
+        if (group.getPairingMode() == PairingMode.SINGLE_CYCLE) {
+            throw new DrawConstraintException(DrawService.SINGLE_CYCLE_WITH_EXCLUSIONS);
+        }
+    }
+
+    private static Set<UUID> participantIds(Group group) {
+        return group.getParticipants().stream()
+                .map(User::getId)
+                .collect(Collectors.toSet());
+    }
+
+    private static Set<List<UUID>> existingRules(Group group) {
+        return group.getExclusions().stream()
+                .map(rule -> List.of(rule.getGiverId(), rule.getReceiverId()))
+                .collect(Collectors.toCollection(HashSet::new));
+    }
+
+    private static void addIfAbsent(Group group, UUID giverId, UUID receiverId, Set<List<UUID>> existing,
+                                    List<ExclusionRule> created) {
+        if (existing.add(List.of(giverId, receiverId))) {
+            ExclusionRule rule = new ExclusionRule(group, giverId, receiverId);
+            group.getExclusions().add(rule);
+            created.add(rule);
+        }
+    }
+}
@@ -1,26 +1,43 @@
 package com.amigo.secreto.services;
 
+import com.amigo.secreto.dtos.BulkInviteResponseDTO;
+import com.amigo.secreto.dtos.BulkInviteResultDTO;
+import com.amigo.secreto.dtos.CursorPageDTO;
+import com.amigo.secreto.dtos.GroupSummaryDTO;
+import com.amigo.secreto.dtos.ParticipantDTO;
 import com.amigo.secreto.models.Group;
 import com.amigo.secreto.models.User;
+import com.amigo.secreto.repositories.GroupMembershipJdbcRepository;
 import com.amigo.secreto.repositories.GroupRepository;
+import com.amigo.secreto.repositories.UserAssignmentJdbcRepository;
 import com.amigo.secreto.repositories.UserRepository;
 import com.amigo.secreto.services.exceptions.ResourceNotFoundException;
 import com.amigo.secreto.services.exceptions.UserAlreadyInGroupException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
-import java.util.Optional;
-import java.util.UUID;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class GroupService {
 
+    private static final int MAX_PAGE_SIZE = 500;
+
     private final UserRepository userRepository;
     private final GroupRepository groupRepository;
+    private final GroupMembershipJdbcRepository groupMembershipJdbcRepository;
+    private final UserAssignmentJdbcRepository userAssignmentJdbcRepository;
 
-    public GroupService(GroupRepository groupRepository, UserRepository userRepository) {
+    public GroupService(GroupRepository groupRepository, UserRepository userRepository,
+                        GroupMembershipJdbcRepository groupMembershipJdbcRepository,
+                        UserAssignmentJdbcRepository userAssignmentJdbcRepository) {
         this.groupRepository = groupRepository;
         this.userRepository = userRepository;
+        this.groupMembershipJdbcRepository = groupMembershipJdbcRepository;
+        this.userAssignmentJdbcRepository = userAssignmentJdbcRepository;
     }
 
     public Group create(Group group) {
@@ -32,37 +49,123 @@ public class GroupService {
         return groupRepository.save(group);
     }
 
-    public List<Group> findAll() {
-        return groupRepository.findAll();
+    public List<GroupSummaryDTO> findAll() {
+        return groupRepository.findAllSummaries();
+    }
+
+    public CursorPageDTO<GroupSummaryDTO> findPage(UUID after, int size) {
+        int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        Limit limit = Limit.of(pageSize + 1);
+
+        List<GroupSummaryDTO> groups = after == null
+                ? groupRepository.findSummaries(limit)
+                : groupRepository.findSummariesAfter(after, limit);
+
+        return CursorPageDTO.of(groups, pageSize, GroupSummaryDTO::id);
+    }
+
+    @Transactional(readOnly = true)
+    public void streamAll(Consumer<GroupSummaryDTO> consumer) {
+        try (Stream<GroupSummaryDTO> groups = groupRepository.streamSummaries()) {
+            groups.forEach(consumer);
+        }
     }
 
     public Optional<Group> findById(UUID id) {
         return groupRepository.findById(id);
     }
 
+    public Optional<GroupSummaryDTO> findSummaryById(UUID id) {
+        return groupRepository.findSummaryById(id);
+    }
+
+    public List<ParticipantDTO> findParticipants(UUID groupId) {
+        if (!groupRepository.existsById(groupId)) {
+            throw new ResourceNotFoundException("Grupo de id " + groupId + " não encontrado.");
+        }
+        return groupRepository.findParticipants(groupId);
+    }
+
+    @Transactional
     public Group update(Group group) {
-        return groupRepository.save(group);
+        Group updated = groupRepository.save(group);
+        userAssignmentJdbcRepository.updateGroupName(updated.getId(), updated.getName());
+        return updated;
     }
 
+    @Transactional
     public void deleteById(UUID id) {
         Group group = groupRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Grupo de id " + id + " não encontrado."));
+        userAssignmentJdbcRepository.deleteByGroupId(id);
         groupRepository.delete(group);
     }
 
-    public Group invite(UUID userId, UUID groupId) {
-        Group group = groupRepository.findById(groupId)
-                .orElseThrow(() -> new ResourceNotFoundException("Grupo de id " + groupId + " não encontrado."));
+    @Transactional
+    public GroupSummaryDTO invite(UUID userId, UUID groupId) {
+        if (!groupRepository.existsById(groupId)) {
+            throw new ResourceNotFoundException("Grupo de id " + groupId + " não encontrado.");
+        }
 
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("Usuário de id " + userId + " não encontrado."));
+        if (!userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("Usuário de id " + userId + " não encontrado.");
+        }
 
-        if (group.getParticipants().contains(user)) {
+        // Consulta e insere uma única linha em user_groups, sem carregar a coleção de participantes
+        if (groupRepository.existsParticipant(groupId, userId)) {
             throw new UserAlreadyInGroupException("Usuário já está no grupo.");
         }
 
-        group.getParticipants().add(user);
-        return groupRepository.save(group);
+        groupRepository.addParticipant(groupId, userId);
+        return groupRepository.findSummaryById(groupId)
+                .orElseThrow(() -> new ResourceNotFoundException("Grupo de id " + groupId + " não encontrado."));
+    }
+
+    @Transactional
+    public BulkInviteResponseDTO inviteAll(UUID groupId, List<UUID> userIds) {
+        if (userIds == null || userIds.isEmpty()) {
+            throw new IllegalArgumentException("Informe pelo menos um usuário para adicionar ao grupo");
+        }
+
+        if (!groupRepository.existsById(groupId)) {
+            throw new ResourceNotFoundException("Grupo de id " + groupId + " não encontrado.");
+        }
+
+        Set<UUID> requested = new LinkedHashSet<>(userIds);
+        Set<UUID> existingUsers = groupMembershipJdbcRepository.findExistingUserIds(requested);
+        Set<UUID> currentMembers = groupMembershipJdbcRepository.findMemberIds(groupId, existingUsers);
+
+        List<UUID> toInsert = new ArrayList<>();
+        for (UUID userId : requested) {
+            if (existingUsers.contains(userId) && !currentMembers.contains(userId)) {
+                toInsert.add(userId);
+            }
+        }
+
+        Set<UUID> inserted = toInsert.isEmpty()
+                ? Set.of()
+                : groupMembershipJdbcRepository.insertMembers(groupId, toInsert);
+
+        List<BulkInviteResultDTO> results = new ArrayList<>(requested.size());
+        int added = 0;
+        int alreadyInGroup = 0;
+        int notFound = 0;
+        for (UUID userId : requested) {
+            BulkInviteResultDTO.Status status;
+            if (!existingUsers.contains(userId)) {
+                status = BulkInviteResultDTO.Status.NOT_FOUND;
+                notFound++;
+            } else if (inserted.contains(userId)) {
+                status = BulkInviteResultDTO.Status.ADDED;
+                added++;
+            } else {
+                status = BulkInviteResultDTO.Status.ALREADY_IN_GROUP;
+                alreadyInGroup++;
+            }
+            results.add(new BulkInviteResultDTO(userId, status));
+        }
+
+        return new BulkInviteResponseDTO(groupId, added, alreadyInGroup, notFound, results);
     }
 
 }
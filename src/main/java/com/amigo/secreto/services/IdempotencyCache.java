@@ -0,0 +1,73 @@
+package com.amigo.secreto.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Guarda o resultado da primeira execução de cada Idempotency-Key. Requisições repetidas
+ * com a mesma chave recebem o mesmo resultado sem tocar no banco; se a primeira ainda estiver
+ * em andamento, as demais esperam por ela. Falhas não são guardadas, então a chave pode ser reutilizada.
+ */
+@Component
+public class IdempotencyCache implements MeterBinder {
+
+    private final Cache<String, CompletableFuture<Object>> results;
+
+    public IdempotencyCache(
+            @Value("${idempotency.max-size:10000}") long maxSize,
+            @Value("${idempotency.ttl:24h}") Duration ttl
+    ) {
+        this.results = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, results, "idempotency");
+    }
+
+    // A ação roda fora do lock do mapa: dentro de get(key, mapping) a transação do sorteio seguraria o bin inteiro,
+    // travando outras chaves, e prenderia a thread carregadora quando a requisição roda em thread virtual
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String key, Supplier<T> action) {
+        CompletableFuture<Object> created = new CompletableFuture<>();
+        CompletableFuture<Object> existing = results.asMap().putIfAbsent(key, created);
+        if (existing != null) {
+            return (T) await(existing);
+        }
+
+        try {
+            T result = action.get();
+            created.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            results.asMap().remove(key, created);
+            created.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private static Object await(CompletableFuture<Object> pending) {
+        try {
+            return pending.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.amigo.secreto.services;
+
+import com.amigo.secreto.dtos.UserAssignmentDTO;
+import com.amigo.secreto.models.Draw;
+import com.amigo.secreto.models.Group;
+import com.amigo.secreto.models.User;
+import com.amigo.secreto.models.UserAssignment;
+import com.amigo.secreto.repositories.DrawRepository;
+import com.amigo.secreto.repositories.UserAssignmentJdbcRepository;
+import com.amigo.secreto.repositories.UserAssignmentRepository;
+import com.amigo.secreto.services.events.DrawCompletedEvent;
+import com.amigo.secreto.services.exceptions.ResourceNotFoundException;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Mantém o modelo de leitura tb_user_assignment, que responde "quem eu tirei em cada grupo" com uma
+ * única consulta indexada em vez de um /draws/my-friend por grupo.
+ */
+@Service
+public class UserAssignmentService {
+
+    private final UserAssignmentRepository userAssignmentRepository;
+    private final UserAssignmentJdbcRepository userAssignmentJdbcRepository;
+    private final DrawRepository drawRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public UserAssignmentService(
+            UserAssignmentRepository userAssignmentRepository,
+            UserAssignmentJdbcRepository userAssignmentJdbcRepository,
+            DrawRepository drawRepository,
+            TransactionTemplate transactionTemplate
+    ) {
+        this.userAssignmentRepository = userAssignmentRepository;
+        this.userAssignmentJdbcRepository = userAssignmentJdbcRepository;
+        this.drawRepository = drawRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    public List<UserAssignmentDTO> findByUser(UUID userId) {
+        return userAssignmentRepository.findByUserId(userId);
+    }
+
+    // Síncrono e na mesma transação do sorteio: o modelo de leitura nunca fica para trás de um sorteio confirmado
+    @EventListener
+    public void onDrawCompleted(DrawCompletedEvent event) {
+        // O sorteio acabou de ser gravado, então vem do contexto de persistência, sem SQL
+        Draw draw = drawRepository.findById(event.drawId())
+                .orElseThrow(() -> new ResourceNotFoundException("Sorteio de id " + event.drawId() + " não encontrado"));
+        record(draw);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        for (UUID drawId : userAssignmentRepository.findDrawIdsWithoutAssignments()) {
+            transactionTemplate.executeWithoutResult(status ->
+                    drawRepository.findWithGroupById(drawId).ifPresent(this::record));
+        }
+    }
+
+    void record(Draw draw) {
+        Group group = draw.getGroup();
+        Map<UUID, User> participants = new HashMap<>((int) (group.getParticipants().size() / 0.75f) + 1);
+        for (User participant : group.getParticipants()) {
+            participants.put(participant.getId(), participant);
+        }
+
+        LocalDateTime drawnAt = LocalDateTime.now();
+        List<UserAssignment> assignments = new ArrayList<>(draw.pairCount());
+        draw.forEachPair((giverId, receiverId) -> {
+            User receiver = participants.get(receiverId);
+            // Quem saiu do grupo depois do sorteio não entra no modelo de leitura
+            if (receiver != null && participants.containsKey(giverId)) {
+                assignments.add(new UserAssignment(giverId, group.getId(), group.getName(), draw.getId(),
+                        receiverId, receiver.getUsername(), receiver.getWishItem(), drawnAt));
+            }
+        });
+
+        userAssignmentJdbcRepository.insertAll(assignments);
+    }
+}
@@ -1,33 +1,65 @@
 package com.amigo.secreto.services;
 
+import com.amigo.secreto.dtos.CursorPageDTO;
+import com.amigo.secreto.dtos.UserSummaryDTO;
 import com.amigo.secreto.models.Group;
 import com.amigo.secreto.models.User;
+import com.amigo.secreto.repositories.UserAssignmentJdbcRepository;
 import com.amigo.secreto.repositories.UserRepository;
+import com.amigo.secreto.services.events.UserChangedEvent;
 import com.amigo.secreto.services.exceptions.ResourceNotFoundException;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class UserService implements UserDetailsService {
 
+    private static final int MAX_PAGE_SIZE = 500;
+
     private UserRepository userRepository;
+    private final UserAssignmentJdbcRepository userAssignmentJdbcRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public UserService(UserRepository userRepository) {
+    public UserService(UserRepository userRepository, UserAssignmentJdbcRepository userAssignmentJdbcRepository,
+                       ApplicationEventPublisher eventPublisher) {
         this.userRepository = userRepository;
+        this.userAssignmentJdbcRepository = userAssignmentJdbcRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     public List<User> findAll() {
         return userRepository.findAll();
     }
 
+    public CursorPageDTO<UserSummaryDTO> findPage(UUID after, int size) {
+        int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        Limit limit = Limit.of(pageSize + 1);
+
+        List<UserSummaryDTO> users = after == null
+                ? userRepository.findSummaries(limit)
+                : userRepository.findSummariesAfter(after, limit);
+
+        return CursorPageDTO.of(users, pageSize, UserSummaryDTO::id);
+    }
+
+    @Transactional(readOnly = true)
+    public void streamAll(Consumer<UserSummaryDTO> consumer) {
+        try (Stream<UserSummaryDTO> users = userRepository.streamSummaries()) {
+            users.forEach(consumer);
+        }
+    }
+
     public Optional<User> findById(UUID id) {
         return Optional.ofNullable(userRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException("Usuário de id " + id + " não encontrado")));
     }
@@ -42,15 +74,25 @@ public class UserService implements UserDetailsService {
                 orElseThrow(() -> new UsernameNotFoundException("Usuário " + username + " não encontrado"));
     }
 
+    @Transactional
     public User update(User user) {
-        return userRepository.save(user);
+        User updated = userRepository.save(user);
+        // Quem tirou este usuário vê o novo username e item desejado em /users/me/assignments
+        userAssignmentJdbcRepository.updateReceiver(updated.getId(), updated.getUsername(), updated.getWishItem());
+        // O PrincipalCache só descarta o usuário depois do commit; antes dele, uma requisição concorrente
+        // recarregaria a versão antiga e a manteria em cache até o TTL
+        eventPublisher.publishEvent(new UserChangedEvent(updated.getId()));
+        return updated;
     }
 
+    @Transactional
     public void delete(UUID id) {
         userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Usuário de id " + id + " não encontrado"));
 
+        userAssignmentJdbcRepository.deleteByUserId(id);
         userRepository.deleteById(id);
+        eventPublisher.publishEvent(new UserChangedEvent(id));
     }
 
     public int countParticipatingGroups(UUID userId) {
@@ -60,22 +102,4 @@ public class UserService implements UserDetailsService {
     public int countParticipatingDraws(UUID userId) {
         return userRepository.countParticipatingDraws(userId);
     }
-
-    public int participatingGroups() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String currentUsername = authentication.getName();
-        User currentUser = userRepository.findByUsername(currentUsername)
-                .orElseThrow(() -> new ResourceNotFoundException("Usuário não encontrado"));
-
-        return userRepository.countParticipatingGroups(currentUser.getId());
-    }
-
-    public int participatingDraws() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String currentUsername = authentication.getName();
-        User currentUser = userRepository.findByUsername(currentUsername)
-                .orElseThrow(() -> new ResourceNotFoundException("Usuário não encontrado"));
-
-        return userRepository.countParticipatingDraws(currentUser.getId());
-    }
 }
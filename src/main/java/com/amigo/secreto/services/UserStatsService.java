@@ -0,0 +1,74 @@
+package com.amigo.secreto.services;
+
+import com.amigo.secreto.dtos.UserStatsDTO;
+import com.amigo.secreto.repositories.UserRepository;
+import com.amigo.secreto.repositories.projections.UserStatsProjection;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Contadores do painel do usuário calculados em uma única consulta agrupada. O resultado fica em
+ * um cache curto por usuário, já que o front-end os busca a cada carregamento do painel
+ * (ttl 0 desativa o cache).
+ */
+@Service
+public class UserStatsService implements MeterBinder {
+
+    private final UserRepository userRepository;
+    private final Cache<UUID, UserStatsDTO> cache;
+
+    public UserStatsService(
+            UserRepository userRepository,
+            @Value("${user-stats.cache.max-size:10000}") long maxSize,
+            @Value("${user-stats.cache.ttl:10s}") Duration ttl
+    ) {
+        this.userRepository = userRepository;
+        this.cache = ttl.isZero()
+                ? null
+                : Caffeine.newBuilder()
+                        .maximumSize(maxSize)
+                        .expireAfterWrite(ttl)
+                        .recordStats()
+                        .build();
+    }
+
+    public UserStatsDTO findByUser(UUID userId) {
+        if (cache == null) {
+            return load(userId);
+        }
+        // A consulta roda fora do lock do mapa: dentro de get(key, mapping) ela seguraria o bin inteiro enquanto
+        // espera o banco, travando outros usuários. Duas requisições simultâneas podem consultar em dobro, o que
+        // é aceitável para contadores que já toleram alguns segundos de atraso
+        UserStatsDTO stats = cache.getIfPresent(userId);
+        if (stats == null) {
+            stats = load(userId);
+            cache.put(userId, stats);
+        }
+        return stats;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (cache != null) {
+            CaffeineCacheMetrics.monitor(registry, cache, "user-stats");
+        }
+    }
+
+    private UserStatsDTO load(UUID userId) {
+        UserStatsProjection stats = userRepository.findStats(userId);
+        return new UserStatsDTO(
+                stats.getParticipatingGroups(),
+                stats.getParticipatingDraws(),
+                stats.getPendingDraws(),
+                stats.getOwnedGroups()
+        );
+    }
+}
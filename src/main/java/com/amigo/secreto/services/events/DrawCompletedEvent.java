@@ -0,0 +1,7 @@
+package com.amigo.secreto.services.events;
+
+import java.util.UUID;
+
+// Publicado dentro da transação do sorteio; os ouvintes só o recebem depois do commit
+public record DrawCompletedEvent(UUID groupId, UUID drawId) {
+}
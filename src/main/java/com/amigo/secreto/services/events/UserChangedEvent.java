@@ -0,0 +1,7 @@
+package com.amigo.secreto.services.events;
+
+import java.util.UUID;
+
+// Publicado dentro da transação que altera ou apaga o usuário; os ouvintes só o recebem depois do commit
+public record UserChangedEvent(UUID userId) {
+}
@@ -0,0 +1,8 @@
+package com.amigo.secreto.services.exceptions;
+
+public class DrawConstraintException extends RuntimeException {
+
+    public DrawConstraintException(String message) {
+        super(message);
+    }
+}
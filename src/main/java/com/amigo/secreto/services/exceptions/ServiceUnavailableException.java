@@ -0,0 +1,8 @@
+package com.amigo.secreto.services.exceptions;
+
+public class ServiceUnavailableException extends RuntimeException {
+
+    public ServiceUnavailableException(String message) {
+        super(message);
+    }
+}
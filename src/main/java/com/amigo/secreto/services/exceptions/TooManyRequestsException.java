@@ -0,0 +1,8 @@
+package com.amigo.secreto.services.exceptions;
+
+public class TooManyRequestsException extends RuntimeException {
+
+    public TooManyRequestsException(String message) {
+        super(message);
+    }
+}
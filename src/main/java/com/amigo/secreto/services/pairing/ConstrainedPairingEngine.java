@@ -0,0 +1,143 @@
+package com.amigo.secreto.services.pairing;
+
+import com.amigo.secreto.services.exceptions.DrawConstraintException;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Ajusta um sorteio aleatório às restrições de exclusão. Os pares válidos do sorteio inicial são
+ * mantidos e cada participante que ficou sem par é religado por um caminho aumentante (BFS) no grafo
+ * bipartido quem dá -> quem recebe, cujas arestas proibidas ficam em uma linha de bits por participante.
+ * Cada busca é O(n + restrições), então o total é polinomial mesmo com milhares de participantes; se um
+ * participante não pode ser religado, não existe emparelhamento perfeito (Berge) e o sorteio é impossível.
+ */
+@Component
+public class ConstrainedPairingEngine {
+
+    private static final int FREE = -1;
+
+    private final Random random;
+
+    public ConstrainedPairingEngine() {
+        this(null);
+    }
+
+    ConstrainedPairingEngine(Random random) {
+        this.random = random;
+    }
+
+    /**
+     * @param seed      sorteio inicial (seed[i] é quem i tira), normalmente de um {@link PairingEngine}
+     * @param forbidden forbidden[i] marca quem i não pode tirar (null quando não há restrições para i)
+     */
+    public int[] repair(int[] seed, BitSet[] forbidden) {
+        int size = seed.length;
+        checkEveryoneHasOption(forbidden, size);
+
+        int[] receiverOf = new int[size];
+        int[] giverOf = new int[size];
+        Arrays.fill(receiverOf, FREE);
+        Arrays.fill(giverOf, FREE);
+        for (int giver = 0; giver < size; giver++) {
+            int receiver = seed[giver];
+            if (isAllowed(forbidden, giver, receiver)) {
+                receiverOf[giver] = receiver;
+                giverOf[receiver] = giver;
+            }
+        }
+
+        Random rnd = random != null ? random : ThreadLocalRandom.current();
+        for (int giver = 0; giver < size; giver++) {
+            if (receiverOf[giver] == FREE && !augment(giver, forbidden, receiverOf, giverOf, rnd)) {
+                throw new DrawConstraintException(
+                        "Não existe sorteio possível com as restrições cadastradas para este grupo");
+            }
+        }
+
+        return receiverOf;
+    }
+
+    // Falha rápida para os casos mais comuns de restrições impossíveis
+    private static void checkEveryoneHasOption(BitSet[] forbidden, int size) {
+        int[] blockedGivers = new int[size];
+        for (int giver = 0; giver < size; giver++) {
+            if (forbidden[giver] == null) {
+                continue;
+            }
+
+            int blockedReceivers = 0;
+            for (int receiver = forbidden[giver].nextSetBit(0); receiver >= 0 && receiver < size;
+                 receiver = forbidden[giver].nextSetBit(receiver + 1)) {
+                if (receiver != giver) {
+                    blockedReceivers++;
+                    blockedGivers[receiver]++;
+                }
+            }
+
+            if (blockedReceivers >= size - 1) {
+                throw new DrawConstraintException("Um participante não pode tirar ninguém com as restrições cadastradas");
+            }
+        }
+
+        for (int receiver = 0; receiver < size; receiver++) {
+            if (blockedGivers[receiver] >= size - 1) {
+                throw new DrawConstraintException("Um participante não pode ser tirado por ninguém com as restrições cadastradas");
+            }
+        }
+    }
+
+    private static boolean augment(int root, BitSet[] forbidden, int[] receiverOf, int[] giverOf, Random rnd) {
+        int size = receiverOf.length;
+        BitSet visited = new BitSet(size);
+        int[] reachedFrom = new int[size];
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        queue.add(root);
+
+        // Percorre os receivers a partir de uma posição aleatória para não favorecer sempre os primeiros
+        int start = rnd.nextInt(size);
+        while (!queue.isEmpty()) {
+            int giver = queue.poll();
+
+            for (int pass = 0; pass < 2; pass++) {
+                int from = pass == 0 ? start : 0;
+                int to = pass == 0 ? size : start;
+
+                for (int receiver = visited.nextClearBit(from); receiver < to; receiver = visited.nextClearBit(receiver + 1)) {
+                    if (!isAllowed(forbidden, giver, receiver)) {
+                        continue;
+                    }
+
+                    visited.set(receiver);
+                    reachedFrom[receiver] = giver;
+                    if (giverOf[receiver] == FREE) {
+                        flip(receiver, reachedFrom, receiverOf, giverOf);
+                        return true;
+                    }
+                    queue.add(giverOf[receiver]);
+                }
+            }
+        }
+
+        return false;
+    }
+
+    private static boolean isAllowed(BitSet[] forbidden, int giver, int receiver) {
+        return giver != receiver && (forbidden[giver] == null || !forbidden[giver].get(receiver));
+    }
+
+    // Inverte o caminho aumentante: cada giver do caminho passa a tirar o receiver pelo qual foi alcançado
+    private static void flip(int receiver, int[] reachedFrom, int[] receiverOf, int[] giverOf) {
+        while (receiver != FREE) {
+            int giver = reachedFrom[receiver];
+            int previous = receiverOf[giver];
+            receiverOf[giver] = receiver;
+            giverOf[receiver] = giver;
+            receiver = previous;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.amigo.secreto.services.pairing;
+
+import com.amigo.secreto.models.PairingMode;
+
+public interface PairingEngine {
+
+    /**
+     * Gera um desarranjo sobre os índices {@code 0..size-1}: a posição {@code i} do array
+     * retornado contém o índice de quem o participante {@code i} tirou, nunca ele mesmo.
+     */
+    int[] generate(int size);
+
+    PairingMode mode();
+}
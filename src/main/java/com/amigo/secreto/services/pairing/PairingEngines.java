@@ -0,0 +1,29 @@
+package com.amigo.secreto.services.pairing;
+
+import com.amigo.secreto.models.PairingMode;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+// Escolhe o PairingEngine de acordo com o modo configurado no grupo
+@Component
+public class PairingEngines {
+
+    private final Map<PairingMode, PairingEngine> engines = new EnumMap<>(PairingMode.class);
+
+    public PairingEngines(List<PairingEngine> engines) {
+        for (PairingEngine engine : engines) {
+            this.engines.put(engine.mode(), engine);
+        }
+    }
+
+    public PairingEngine forMode(PairingMode mode) {
+        PairingEngine engine = engines.get(mode != null ? mode : PairingMode.RANDOM);
+        if (engine == null) {
+            throw new IllegalStateException("Nenhum PairingEngine registrado para o modo " + mode);
+        }
+        return engine;
+    }
+}
@@ -0,0 +1,63 @@
+package com.amigo.secreto.services.pairing;
+
+import com.amigo.secreto.models.PairingMode;
+import org.springframework.stereotype.Component;
+
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Desarranjo aleatório em O(n): um único embaralhamento de Fisher-Yates seguido de uma
+ * passada que corrige os pontos fixos trocando-os com o vizinho. Não há novas tentativas,
+ * então o pior caso é o mesmo que o caso médio.
+ */
+@Component
+public class RandomDerangementPairingEngine implements PairingEngine {
+
+    private final Random random;
+
+    public RandomDerangementPairingEngine() {
+        this(null);
+    }
+
+    RandomDerangementPairingEngine(Random random) {
+        this.random = random;
+    }
+
+    @Override
+    public int[] generate(int size) {
+        if (size < 2) {
+            throw new IllegalArgumentException("São necessários pelo menos 2 participantes para gerar os pares");
+        }
+
+        Random rnd = random != null ? random : ThreadLocalRandom.current();
+        int[] receivers = new int[size];
+        for (int i = 0; i < size; i++) {
+            receivers[i] = i;
+        }
+
+        for (int i = size - 1; i > 0; i--) {
+            swap(receivers, i, rnd.nextInt(i + 1));
+        }
+
+        // Trocar com o vizinho nunca cria um novo ponto fixo: o vizinho passa a receber i
+        for (int i = 0; i < size; i++) {
+            if (receivers[i] == i) {
+                swap(receivers, i, (i + 1) % size);
+            }
+        }
+
+        return receivers;
+    }
+
+    @Override
+    public PairingMode mode() {
+        return PairingMode.RANDOM;
+    }
+
+    private static void swap(int[] values, int i, int j) {
+        int tmp = values[i];
+        values[i] = values[j];
+        values[j] = tmp;
+    }
+}
@@ -0,0 +1,54 @@
+package com.amigo.secreto.services.pairing;
+
+import com.amigo.secreto.models.PairingMode;
+import org.springframework.stereotype.Component;
+
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Algoritmo de Sattolo: um único embaralhamento em O(n) que gera, com distribuição uniforme, uma
+ * permutação formada por um só ciclo. Para qualquer n >= 2 (par ou ímpar) ninguém tira a si mesmo
+ * e a troca de presentes percorre todos os participantes em sequência.
+ */
+@Component
+public class SingleCyclePairingEngine implements PairingEngine {
+
+    private final Random random;
+
+    public SingleCyclePairingEngine() {
+        this(null);
+    }
+
+    SingleCyclePairingEngine(Random random) {
+        this.random = random;
+    }
+
+    @Override
+    public int[] generate(int size) {
+        if (size < 2) {
+            throw new IllegalArgumentException("São necessários pelo menos 2 participantes para gerar os pares");
+        }
+
+        Random rnd = random != null ? random : ThreadLocalRandom.current();
+        int[] receivers = new int[size];
+        for (int i = 0; i < size; i++) {
+            receivers[i] = i;
+        }
+
+        // Diferente de Fisher-Yates, j < i: o elemento nunca fica na própria posição e tudo vira um ciclo só
+        for (int i = size - 1; i > 0; i--) {
+            int j = rnd.nextInt(i);
+            int tmp = receivers[i];
+            receivers[i] = receivers[j];
+            receivers[j] = tmp;
+        }
+
+        return receivers;
+    }
+
+    @Override
+    public PairingMode mode() {
+        return PairingMode.SINGLE_CYCLE;
+    }
+}
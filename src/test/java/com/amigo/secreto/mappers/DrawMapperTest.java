@@ -0,0 +1,61 @@
+package com.amigo.secreto.mappers;
+
+import com.amigo.secreto.dtos.DrawResponseDTO;
+import com.amigo.secreto.models.Draw;
+import com.amigo.secreto.models.Group;
+import com.amigo.secreto.models.User;
+import com.amigo.secreto.services.exceptions.ResourceNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DrawMapperTest {
+
+    private User alice;
+    private User bob;
+    private Draw draw;
+
+    @BeforeEach
+    void setUp() {
+        alice = new User();
+        alice.setId(UUID.randomUUID());
+        alice.setUsername("Alice");
+
+        bob = new User();
+        bob.setId(UUID.randomUUID());
+        bob.setUsername("Bob");
+
+        Group group = new Group();
+        group.setId(UUID.randomUUID());
+        group.setParticipants(new HashSet<>(List.of(alice, bob)));
+
+        draw = new Draw();
+        draw.setId(UUID.randomUUID());
+        draw.setGroup(group);
+    }
+
+    @Test
+    void toDrawResponseDTOShouldMapIdsToUsernames() {
+        Map<UUID, UUID> pairs = new HashMap<>();
+        pairs.put(alice.getId(), bob.getId());
+        pairs.put(bob.getId(), alice.getId());
+        draw.setPairs(pairs);
+
+        DrawResponseDTO result = DrawMapper.toDrawResponseDTO(draw);
+
+        assertEquals(draw.getId(), result.id());
+        assertEquals(Map.of("Alice", "Bob", "Bob", "Alice"), result.pairs());
+    }
+
+    @Test
+    void toDrawResponseDTOShouldThrowWhenUserIsNotParticipant() {
+        UUID unknownId = UUID.randomUUID();
+        draw.setPairs(Map.of(alice.getId(), unknownId));
+
+        ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class, () -> DrawMapper.toDrawResponseDTO(draw));
+        assertEquals("Usuário de id " + unknownId + " não encontrado", exception.getMessage());
+    }
+}
@@ -0,0 +1,58 @@
+package com.amigo.secreto.models;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PackedPairsTest {
+
+    // Tamanhos nas bordas de cada largura de ordinal (1, 2 e 3 bytes)
+    @ParameterizedTest
+    @ValueSource(ints = {2, 256, 257, 65_536, 65_537})
+    void encodeShouldRoundTripEveryPair(int size) {
+        List<UUID> ids = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            ids.add(UUID.randomUUID());
+        }
+        Collections.sort(ids);
+
+        int[] receivers = new int[size];
+        for (int i = 0; i < size; i++) {
+            receivers[i] = (i + 1) % size;
+        }
+
+        PackedPairs encoded = PackedPairs.encode(ids, receivers);
+        PackedPairs decoded = new PackedPairs(encoded.participantOrder(), encoded.packedReceivers());
+
+        assertEquals(size, decoded.size());
+        for (int i = 0; i < size; i++) {
+            assertEquals(ids.get(receivers[i]), decoded.receiverOf(ids.get(i)));
+        }
+        assertNull(decoded.receiverOf(UUID.randomUUID()));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {3, 300})
+    void forEachShouldVisitAllPairsOnce(int size) {
+        List<UUID> ids = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            ids.add(UUID.randomUUID());
+        }
+        Collections.sort(ids);
+        int[] receivers = new int[size];
+        for (int i = 0; i < size; i++) {
+            receivers[i] = (i + 1) % size;
+        }
+
+        List<UUID> givers = new ArrayList<>();
+        PackedPairs.encode(ids, receivers).forEach((giver, receiver) -> givers.add(giver));
+
+        assertEquals(ids, givers);
+    }
+}
@@ -0,0 +1,121 @@
+package com.amigo.secreto.repositories;
+
+import com.amigo.secreto.models.Draw;
+import com.amigo.secreto.models.Group;
+import com.amigo.secreto.models.PackedPairs;
+import com.amigo.secreto.models.User;
+import com.amigo.secreto.repositories.projections.FriendProjection;
+import com.amigo.secreto.repositories.projections.PackedDrawProjection;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class DrawRepositoryFriendTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private DrawRepository drawRepository;
+
+    private User alice;
+    private User bob;
+    private User carol;
+
+    @BeforeEach
+    void setUp() {
+        alice = user("alice");
+        bob = user("bob");
+        carol = user("carol");
+        bob.setWishItem("Livro");
+    }
+
+    @Test
+    void findFriendShouldReadDrawPairs() {
+        Group group = group(List.of(alice, bob));
+        Draw draw = new Draw();
+        draw.setGroup(group);
+        draw.setPairs(Map.of(alice.getId(), bob.getId(), bob.getId(), alice.getId()));
+        entityManager.persist(draw);
+        flushAndClear();
+
+        FriendProjection friend = drawRepository.findFriend(group.getId(), alice.getId()).orElseThrow();
+
+        assertEquals(bob.getId(), friend.getFriendId());
+        assertEquals("bob", friend.getFriendUsername());
+        assertEquals("Livro", friend.getWishItem());
+    }
+
+    @Test
+    void findPackedByGroupIdShouldReadOnlyTheArrays() {
+        // carol já saiu do grupo, mas continua no sorteio compactado e não tem linha em tb_user_assignment
+        Group group = group(List.of(alice, bob));
+        List<UUID> sortedIds = new ArrayList<>(List.of(alice.getId(), bob.getId(), carol.getId()));
+        Collections.sort(sortedIds);
+        int[] receivers = new int[3];
+        for (int giver = 0; giver < receivers.length; giver++) {
+            receivers[giver] = (giver + 1) % receivers.length;
+        }
+        Draw draw = new Draw();
+        draw.setGroup(group);
+        draw.setPacked(PackedPairs.encode(sortedIds, receivers));
+        entityManager.persist(draw);
+        flushAndClear();
+
+        assertTrue(drawRepository.findFriend(group.getId(), carol.getId()).isEmpty());
+
+        PackedDrawProjection packed = drawRepository.findPackedByGroupId(group.getId()).orElseThrow();
+        int carolIndex = sortedIds.indexOf(carol.getId());
+        assertEquals(draw.getId(), packed.getId());
+        assertEquals(sortedIds.get((carolIndex + 1) % 3),
+                new PackedPairs(packed.getParticipantOrder(), packed.getPackedPairs()).receiverOf(carol.getId()));
+    }
+
+    @Test
+    void findPackedByGroupIdShouldReturnNullArraysForDrawPairs() {
+        Group group = group(List.of(alice, bob));
+        Draw draw = new Draw();
+        draw.setGroup(group);
+        draw.setPairs(Map.of(alice.getId(), bob.getId(), bob.getId(), alice.getId()));
+        entityManager.persist(draw);
+        flushAndClear();
+
+        PackedDrawProjection packed = drawRepository.findPackedByGroupId(group.getId()).orElseThrow();
+
+        assertEquals(draw.getId(), packed.getId());
+        assertNull(packed.getParticipantOrder());
+        assertNull(packed.getPackedPairs());
+        assertTrue(drawRepository.findPackedByGroupId(group(List.of(carol)).getId()).isEmpty());
+    }
+
+    private void flushAndClear() {
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private User user(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        return entityManager.persist(user);
+    }
+
+    private Group group(List<User> participants) {
+        Group group = new Group();
+        group.setName("Família");
+        group.setOwnerId(participants.get(0).getId());
+        group.getParticipants().addAll(participants);
+        return entityManager.persist(group);
+    }
+}
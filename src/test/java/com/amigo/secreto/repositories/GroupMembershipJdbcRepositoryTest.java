@@ -0,0 +1,104 @@
+package com.amigo.secreto.repositories;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GroupMembershipJdbcRepositoryTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private PreparedStatement preparedStatement;
+
+    @Mock
+    private Array array;
+
+    private GroupMembershipJdbcRepository repository;
+    private UUID groupId;
+
+    @BeforeEach
+    void setUp() {
+        repository = new GroupMembershipJdbcRepository(jdbcTemplate, namedParameterJdbcTemplate);
+        groupId = UUID.randomUUID();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void insertMembersShouldReturnOnlyRowsTheDatabaseInserted() throws Exception {
+        UUID added = UUID.randomUUID();
+        UUID alreadyMember = UUID.randomUUID();
+        // O RETURNING não traz quem o ON CONFLICT ignorou (membro gravado por um convite concorrente)
+        when(jdbcTemplate.query(any(PreparedStatementCreator.class), any(RowMapper.class))).thenReturn(List.of(added));
+        when(connection.prepareStatement(anyString())).thenReturn(preparedStatement);
+        when(connection.createArrayOf(eq("uuid"), any(Object[].class))).thenReturn(array);
+
+        Set<UUID> inserted = repository.insertMembers(groupId, List.of(added, alreadyMember));
+
+        assertEquals(Set.of(added), inserted);
+
+        ArgumentCaptor<PreparedStatementCreator> creator = ArgumentCaptor.forClass(PreparedStatementCreator.class);
+        verify(jdbcTemplate).query(creator.capture(), any(RowMapper.class));
+        creator.getValue().createPreparedStatement(connection);
+        verify(connection).createArrayOf("uuid", new Object[]{added, alreadyMember});
+        verify(preparedStatement).setObject(1, groupId);
+        verify(preparedStatement).setArray(2, array);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void insertMembersShouldSendOneStatementPerChunk() throws Exception {
+        List<UUID> userIds = new ArrayList<>();
+        for (int i = 0; i < 2500; i++) {
+            userIds.add(UUID.randomUUID());
+        }
+        when(jdbcTemplate.query(any(PreparedStatementCreator.class), any(RowMapper.class)))
+                .thenReturn(userIds.subList(0, 1000), userIds.subList(1000, 2000), userIds.subList(2000, 2500));
+
+        Set<UUID> inserted = repository.insertMembers(groupId, userIds);
+
+        assertEquals(Set.copyOf(userIds), inserted);
+        verify(jdbcTemplate, times(3)).query(any(PreparedStatementCreator.class), any(RowMapper.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void rowMapperShouldReadParticipantId() throws Exception {
+        UUID userId = UUID.randomUUID();
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.getObject(1, UUID.class)).thenReturn(userId);
+        ArgumentCaptor<RowMapper<UUID>> mapper = ArgumentCaptor.forClass(RowMapper.class);
+        when(jdbcTemplate.query(any(PreparedStatementCreator.class), mapper.capture())).thenReturn(List.of());
+
+        repository.insertMembers(groupId, List.of(userId));
+
+        assertEquals(userId, mapper.getValue().mapRow(resultSet, 0));
+    }
+}
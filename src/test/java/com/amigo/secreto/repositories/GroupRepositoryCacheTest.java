@@ -0,0 +1,116 @@
+package com.amigo.secreto.repositories;
+
+import com.amigo.secreto.models.Group;
+import com.amigo.secreto.models.Role;
+import com.amigo.secreto.models.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// O cache de segundo nível só é preenchido por transações confirmadas, então aqui cada passo faz commit
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class GroupRepositoryCacheTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private GroupRepository groupRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    private TransactionTemplate transactionTemplate;
+    private Cache cache;
+    private UUID roleId;
+    private UUID ownerId;
+    private UUID guestId;
+    private UUID groupId;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Role role = new Role();
+            role.setName("ROLE_CACHE_" + UUID.randomUUID());
+            entityManager.persist(role);
+
+            User owner = user(role);
+            User guest = user(role);
+
+            Group group = new Group();
+            group.setName("Família");
+            group.setOwnerId(owner.getId());
+            group.getParticipants().add(owner);
+            entityManager.persist(group);
+
+            roleId = role.getId();
+            ownerId = owner.getId();
+            guestId = guest.getId();
+            groupId = group.getId();
+        });
+        cache.evictAllRegions();
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionTemplate.executeWithoutResult(status -> {
+            entityManager.remove(entityManager.find(Group.class, groupId));
+            entityManager.remove(entityManager.find(User.class, ownerId));
+            entityManager.remove(entityManager.find(User.class, guestId));
+            entityManager.remove(entityManager.find(Role.class, roleId));
+        });
+    }
+
+    @Test
+    void addParticipantShouldKeepUserAndRoleRegions() {
+        transactionTemplate.executeWithoutResult(status -> {
+            userRepository.findById(ownerId).orElseThrow().getRoles().size();
+            roleRepository.findById(roleId).orElseThrow();
+        });
+        assertTrue(cache.containsEntity(User.class, ownerId));
+        assertTrue(cache.containsEntity(Role.class, roleId));
+
+        transactionTemplate.executeWithoutResult(status -> groupRepository.addParticipant(groupId, guestId));
+
+        assertTrue(cache.containsEntity(User.class, ownerId), "Convite não deveria esvaziar a região user");
+        assertTrue(cache.containsEntity(Role.class, roleId), "Convite não deveria esvaziar a região role");
+        assertTrue(groupRepository.existsParticipant(groupId, guestId));
+    }
+
+    private User user(Role role) {
+        String username = "user-" + UUID.randomUUID();
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.getRoles().add(role);
+        entityManager.persist(user);
+        return user;
+    }
+}
@@ -0,0 +1,119 @@
+package com.amigo.secreto.repositories;
+
+import com.amigo.secreto.models.Draw;
+import com.amigo.secreto.models.Group;
+import com.amigo.secreto.models.Role;
+import com.amigo.secreto.models.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Carregar um grupo grande com sorteio deve custar um número fixo de consultas, não uma por participante
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class GroupRepositoryQueryCountTest {
+
+    private static final int PARTICIPANTS = 5000;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private GroupRepository groupRepository;
+
+    @Autowired
+    private DrawRepository drawRepository;
+
+    private Statistics statistics;
+    private UUID groupId;
+    private UUID drawId;
+
+    @BeforeEach
+    void setUp() {
+        Role role = new Role();
+        role.setName("ROLE_USER");
+        entityManager.persist(role);
+
+        List<User> users = new ArrayList<>(PARTICIPANTS);
+        for (int i = 0; i < PARTICIPANTS; i++) {
+            User user = new User();
+            user.setUsername("user" + i);
+            user.setEmail("user" + i + "@example.com");
+            user.getRoles().add(role);
+            entityManager.persist(user);
+            users.add(user);
+        }
+
+        Group group = new Group();
+        group.setName("Escritório");
+        group.setOwnerId(users.get(0).getId());
+        group.getParticipants().addAll(users);
+        entityManager.persist(group);
+
+        Draw draw = new Draw();
+        draw.setGroup(group);
+        Map<UUID, UUID> pairs = new HashMap<>();
+        for (int i = 0; i < PARTICIPANTS; i++) {
+            pairs.put(users.get(i).getId(), users.get((i + 1) % PARTICIPANTS).getId());
+        }
+        draw.setPairs(pairs);
+        entityManager.persist(draw);
+
+        entityManager.flush();
+        entityManager.clear();
+
+        groupId = group.getId();
+        drawId = draw.getId();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void findForDrawByIdShouldLoadParticipantsRolesAndDrawInConstantQueries() {
+        Group group = groupRepository.findForDrawById(groupId).orElseThrow();
+
+        assertEquals(PARTICIPANTS, group.getParticipants().size());
+        group.getParticipants().forEach(participant -> assertEquals(1, participant.getRoles().size()));
+        assertEquals(PARTICIPANTS, group.getDraw().pairCount());
+
+        // grupo + participantes + sorteio, roles (subselect) e pares
+        assertTrue(statistics.getPrepareStatementCount() <= 3,
+                "Consultas executadas: " + statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findWithParticipantsByIdShouldLoadParticipantsAndRolesInConstantQueries() {
+        Group group = groupRepository.findWithParticipantsById(groupId).orElseThrow();
+
+        group.getParticipants().forEach(participant -> participant.getRoles().size());
+        assertTrue(group.isAlreadyDrawn());
+
+        assertTrue(statistics.getPrepareStatementCount() <= 2,
+                "Consultas executadas: " + statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findWithGroupByIdShouldLoadDrawGroupAndParticipantsInConstantQueries() {
+        Draw draw = drawRepository.findWithGroupById(drawId).orElseThrow();
+
+        Set<User> participants = draw.getGroup().getParticipants();
+        participants.forEach(participant -> participant.getRoles().size());
+        assertEquals(PARTICIPANTS, participants.size());
+        assertEquals(PARTICIPANTS, draw.pairCount());
+
+        // sorteio + grupo + participantes, roles (subselect) e pares
+        assertTrue(statistics.getPrepareStatementCount() <= 3,
+                "Consultas executadas: " + statistics.getPrepareStatementCount());
+    }
+}
@@ -0,0 +1,85 @@
+package com.amigo.secreto.repositories;
+
+import com.amigo.secreto.models.Draw;
+import com.amigo.secreto.models.Group;
+import com.amigo.secreto.models.User;
+import com.amigo.secreto.repositories.projections.UserStatsProjection;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class UserRepositoryStatsTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User alice;
+    private User bob;
+    private User carol;
+
+    @BeforeEach
+    void setUp() {
+        alice = user("alice");
+        bob = user("bob");
+        carol = user("carol");
+
+        // alice: dona de 2 grupos, participa de 3, um deles já sorteado
+        Group drawn = group("Família", alice, List.of(alice, bob));
+        Draw draw = new Draw();
+        draw.setGroup(drawn);
+        draw.setPairs(Map.of(alice.getId(), bob.getId(), bob.getId(), alice.getId()));
+        entityManager.persist(draw);
+
+        group("Escritório", alice, List.of(alice));
+        group("Amigos", bob, List.of(alice, bob));
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void findStatsShouldCountEverythingInOneQuery() {
+        UserStatsProjection stats = userRepository.findStats(alice.getId());
+
+        assertEquals(3, stats.getParticipatingGroups());
+        assertEquals(1, stats.getParticipatingDraws());
+        assertEquals(2, stats.getPendingDraws());
+        assertEquals(2, stats.getOwnedGroups());
+    }
+
+    @Test
+    void findStatsShouldReturnZerosForUserWithoutGroups() {
+        UserStatsProjection stats = userRepository.findStats(carol.getId());
+
+        assertEquals(0, stats.getParticipatingGroups());
+        assertEquals(0, stats.getParticipatingDraws());
+        assertEquals(0, stats.getPendingDraws());
+        assertEquals(0, stats.getOwnedGroups());
+    }
+
+    private User user(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        return entityManager.persist(user);
+    }
+
+    private Group group(String name, User owner, List<User> participants) {
+        Group group = new Group();
+        group.setName(name);
+        group.setOwnerId(owner.getId());
+        group.getParticipants().addAll(participants);
+        return entityManager.persist(group);
+    }
+}
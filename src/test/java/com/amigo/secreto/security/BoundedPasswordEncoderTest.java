@@ -0,0 +1,101 @@
+package com.amigo.secreto.security;
+
+import com.amigo.secreto.services.exceptions.ServiceUnavailableException;
+import com.amigo.secreto.services.exceptions.TooManyRequestsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedPasswordEncoderTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final CountDownLatch started = new CountDownLatch(1);
+    private BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        encoder.close();
+    }
+
+    @Test
+    void encodeAndMatchesShouldDelegateAndRecordLatency() {
+        encoder = new BoundedPasswordEncoder(new PlainEncoder(), 1, 1, Duration.ofSeconds(5), meterRegistry);
+
+        assertEquals("{plain}secret", encoder.encode("secret"));
+        assertTrue(encoder.matches("secret", "{plain}secret"));
+        assertFalse(encoder.matches("other", "{plain}secret"));
+
+        assertEquals(1, meterRegistry.get("auth.password.hashing").tag("operation", "encode").timer().count());
+        assertEquals(2, meterRegistry.get("auth.password.hashing").tag("operation", "matches").timer().count());
+    }
+
+    @Test
+    void shouldRejectWhenPoolAndQueueAreFull() throws Exception {
+        encoder = new BoundedPasswordEncoder(new BlockingEncoder(), 1, 1, Duration.ofSeconds(5), meterRegistry);
+
+        // Uma chamada ocupa a única thread e outra ocupa a única vaga da fila
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("a"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("b"));
+        waitForQueued(1);
+
+        assertThrows(TooManyRequestsException.class, () -> encoder.encode("c"));
+        assertEquals(1.0, meterRegistry.get("auth.password.hashing.rejected").counter().count());
+
+        release.countDown();
+        assertEquals("{plain}a", running.get(5, TimeUnit.SECONDS));
+        assertEquals("{plain}b", queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void shouldFailWithServiceUnavailableWhenHashingTakesTooLong() {
+        encoder = new BoundedPasswordEncoder(new BlockingEncoder(), 1, 1, Duration.ofMillis(50), meterRegistry);
+
+        assertThrows(ServiceUnavailableException.class, () -> encoder.encode("a"));
+    }
+
+    private void waitForQueued(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("executor.queued").tag("name", "password-hashing").gauge().value() < expected) {
+            assertTrue(System.nanoTime() < deadline, "tarefa não entrou na fila");
+            Thread.sleep(5);
+        }
+    }
+
+    private static class PlainEncoder implements PasswordEncoder {
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            return "{plain}" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encode(rawPassword).equals(encodedPassword);
+        }
+    }
+
+    private class BlockingEncoder extends PlainEncoder {
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return super.encode(rawPassword);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.amigo.secreto.security;
+
+import com.amigo.secreto.models.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.MethodParameter;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CurrentUserArgumentResolverTest {
+
+    private final CurrentUserArgumentResolver resolver = new CurrentUserArgumentResolver();
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void supportsOnlyAnnotatedUserParameters() throws NoSuchMethodException {
+        assertTrue(resolver.supportsParameter(parameter("annotated", 0)));
+        assertFalse(resolver.supportsParameter(parameter("notAnnotated", 0)));
+        assertFalse(resolver.supportsParameter(parameter("wrongType", 0)));
+    }
+
+    @Test
+    void resolveArgumentShouldReturnPrincipalWithoutQueryingRepository() throws NoSuchMethodException {
+        User user = new User();
+        user.setId(UUID.randomUUID());
+        user.setUsername("alice");
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, List.of()));
+
+        assertSame(user, resolver.resolveArgument(parameter("annotated", 0), null, null, null));
+    }
+
+    @Test
+    void resolveArgumentShouldRejectAnonymousRequests() {
+        assertThrows(BadCredentialsException.class,
+                () -> resolver.resolveArgument(parameter("annotated", 0), null, null, null));
+    }
+
+    private static MethodParameter parameter(String methodName, int index) throws NoSuchMethodException {
+        for (var method : Handlers.class.getDeclaredMethods()) {
+            if (method.getName().equals(methodName)) {
+                return new MethodParameter(method, index);
+            }
+        }
+        throw new NoSuchMethodException(methodName);
+    }
+
+    @SuppressWarnings("unused")
+    private static class Handlers {
+        void annotated(@CurrentUser User user) {
+        }
+
+        void notAnnotated(User user) {
+        }
+
+        void wrongType(@CurrentUser String username) {
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.amigo.secreto.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtServiceTest {
+
+    private static final String SECRET = "segredo-de-teste-com-pelo-menos-32-bytes!!";
+
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void cachedTokenShouldNotBeReturnedAfterExpiration() throws InterruptedException {
+        // "exp" é gravado em segundos: com 2s de validade o token vence entre 1s e 2s depois de emitido
+        JwtService jwtService = jwtService(true, SECRET, 2000);
+        String token = jwtService.generateToken("alice@example.com");
+
+        assertEquals("alice@example.com", jwtService.getSubject(token));
+        assertEquals("alice@example.com", jwtService.getSubject(token));
+        assertEquals(1, verifications("valid"));
+
+        Thread.sleep(2100);
+
+        assertNull(jwtService.getSubject(token));
+        assertEquals(1, verifications("invalid"));
+    }
+
+    @Test
+    void invalidTokensShouldNeverBeCached() {
+        JwtService jwtService = jwtService(true, SECRET, 60000);
+        String token = jwtService.generateToken("alice@example.com");
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+        String otherKey = jwtService(false, SECRET.replace('!', '?'), 60000).generateToken("alice@example.com");
+
+        for (int i = 0; i < 2; i++) {
+            assertNull(jwtService.getSubject(tampered));
+            assertNull(jwtService.getSubject(otherKey));
+            assertNull(jwtService.getSubject("nao-e-um-jwt"));
+        }
+
+        assertEquals(6, verifications("invalid"));
+        assertEquals(0, verifications("valid"));
+    }
+
+    @Test
+    void disabledCacheShouldParseEveryCall() {
+        JwtService jwtService = jwtService(false, SECRET, 60000);
+        String token = jwtService.generateToken("alice@example.com");
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals("alice@example.com", jwtService.getSubject(token));
+        }
+
+        assertEquals(3, verifications("valid"));
+    }
+
+    private JwtService jwtService(boolean cacheEnabled, String secret, long expiration) {
+        JwtService jwtService = new JwtService(meterRegistry);
+        ReflectionTestUtils.setField(jwtService, "secret", secret);
+        ReflectionTestUtils.setField(jwtService, "expiration", expiration);
+        ReflectionTestUtils.setField(jwtService, "verifiedCacheEnabled", cacheEnabled);
+        ReflectionTestUtils.setField(jwtService, "verifiedCacheMaxSize", 100L);
+        jwtService.init();
+        return jwtService;
+    }
+
+    // Acertos do cache não passam pelo parser, então só as verificações reais contam aqui
+    private long verifications(String outcome) {
+        return meterRegistry.get("auth.jwt.verify").tag("outcome", outcome).timer().count();
+    }
+}
@@ -0,0 +1,100 @@
+package com.amigo.secreto.security;
+
+import com.amigo.secreto.models.User;
+import com.amigo.secreto.repositories.UserAssignmentJdbcRepository;
+import com.amigo.secreto.services.UserService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// A remoção do cache depende do commit, então aqui cada passo roda na sua própria transação
+@DataJpaTest
+@Import({UserService.class, PrincipalCache.class, UserAssignmentJdbcRepository.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PrincipalCacheEvictionTest {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private PrincipalCache principalCache;
+
+    private TransactionTemplate transactionTemplate;
+    private String username;
+    private UUID userId;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        username = "user-" + UUID.randomUUID();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            User user = new User();
+            user.setUsername(username);
+            user.setEmail(username + "@example.com");
+            entityManager.persist(user);
+            userId = user.getId();
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionTemplate.executeWithoutResult(status -> {
+            User user = entityManager.find(User.class, userId);
+            if (user != null) {
+                entityManager.remove(user);
+            }
+        });
+    }
+
+    @Test
+    void deleteShouldEvictOnlyAfterCommit() throws Exception {
+        User cached = principalCache.findByUsername(username).orElseThrow();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            userService.delete(userId);
+
+            // Uma requisição que chega antes do commit ainda usa a entrada atual em vez de recarregar
+            // do banco a linha que está sendo apagada e guardá-la até o TTL
+            Optional<User> concurrent = CompletableFuture.supplyAsync(() -> principalCache.findByUsername(username))
+                    .orTimeout(5, TimeUnit.SECONDS)
+                    .join();
+            assertSame(cached, concurrent.orElseThrow());
+        });
+
+        assertTrue(principalCache.findByUsername(username).isEmpty(), "Usuário apagado continua autenticando");
+    }
+
+    @Test
+    void rolledBackDeleteShouldKeepCachedUser() {
+        User cached = principalCache.findByUsername(username).orElseThrow();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            userService.delete(userId);
+            status.setRollbackOnly();
+        });
+
+        assertSame(cached, principalCache.findByUsername(username).orElseThrow());
+    }
+}
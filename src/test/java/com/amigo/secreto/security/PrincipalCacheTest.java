@@ -0,0 +1,66 @@
+package com.amigo.secreto.security;
+
+import com.amigo.secreto.models.User;
+import com.amigo.secreto.repositories.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PrincipalCacheTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private PrincipalCache principalCache;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        principalCache = new PrincipalCache(userRepository, 100, Duration.ofMinutes(5));
+
+        user = new User();
+        user.setId(UUID.randomUUID());
+        user.setUsername("alice");
+    }
+
+    @Test
+    void findByUsernameShouldHitRepositoryOnlyOnce() {
+        when(userRepository.findByUsername("alice")).thenReturn(Optional.of(user));
+
+        assertSame(user, principalCache.findByUsername("alice").orElseThrow());
+        assertSame(user, principalCache.findByUsername("alice").orElseThrow());
+
+        verify(userRepository, times(1)).findByUsername("alice");
+    }
+
+    @Test
+    void findByUsernameShouldNotCacheMissingUsers() {
+        when(userRepository.findByUsername("bob")).thenReturn(Optional.empty());
+
+        assertTrue(principalCache.findByUsername("bob").isEmpty());
+        assertTrue(principalCache.findByUsername("bob").isEmpty());
+
+        verify(userRepository, times(2)).findByUsername("bob");
+    }
+
+    @Test
+    void evictShouldForceReload() {
+        when(userRepository.findByUsername("alice")).thenReturn(Optional.of(user));
+        principalCache.findByUsername("alice");
+
+        principalCache.evict(user.getId());
+        principalCache.findByUsername("alice");
+
+        verify(userRepository, times(2)).findByUsername("alice");
+    }
+}
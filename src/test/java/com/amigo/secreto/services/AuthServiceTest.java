@@ -17,9 +17,6 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.authentication.BadCredentialsException;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContext;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.util.*;
@@ -44,12 +41,6 @@ public class AuthServiceTest {
     @Mock
     private JwtService jwtService;
 
-    @Mock
-    private SecurityContext securityContext;
-
-    @Mock
-    private Authentication authentication;
-
     @InjectMocks
     private AuthService authService;
 
@@ -85,8 +76,6 @@ public class AuthServiceTest {
         adminUser.setRoles(Set.of(userRole, adminRole));
 
         testToken = "test-jwt-token";
-
-        SecurityContextHolder.setContext(securityContext);
     }
 
     @Test
@@ -204,16 +193,12 @@ public class AuthServiceTest {
                 "newadmin", "newadmin@example.com", "password", null
         );
 
-        when(securityContext.getAuthentication()).thenReturn(authentication);
-        when(authentication.getPrincipal()).thenReturn(testUser); // Non-admin user
 
         // Act & Assert
         AccessDeniedException exception = assertThrows(AccessDeniedException.class,
-                () -> authService.registerAdmin(registerRequest));
+                () -> authService.registerAdmin(registerRequest, testUser));
         assertEquals("Apenas administradores podem criar novos administradores", exception.getMessage());
 
-        verify(securityContext).getAuthentication();
-        verify(authentication).getPrincipal();
         verify(userRepository, never()).findByEmail(anyString());
         verify(roleRepository, never()).findByName(anyString());
         verify(passwordEncoder, never()).encode(anyString());
@@ -228,17 +213,13 @@ public class AuthServiceTest {
                 "existingadmin", "admin@example.com", "password", null
         );
 
-        when(securityContext.getAuthentication()).thenReturn(authentication);
-        when(authentication.getPrincipal()).thenReturn(adminUser);
         when(userRepository.findByEmail("admin@example.com")).thenReturn(Optional.of(adminUser));
 
         // Act & Assert
         IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
-                () -> authService.registerAdmin(registerRequest));
+                () -> authService.registerAdmin(registerRequest, adminUser));
         assertEquals("Email já cadastrado", exception.getMessage());
 
-        verify(securityContext).getAuthentication();
-        verify(authentication).getPrincipal();
         verify(userRepository).findByEmail("admin@example.com");
         verify(roleRepository, never()).findByName(anyString());
         verify(passwordEncoder, never()).encode(anyString());
@@ -253,18 +234,14 @@ public class AuthServiceTest {
                 "newadmin", "newadmin@example.com", "password", null
         );
 
-        when(securityContext.getAuthentication()).thenReturn(authentication);
-        when(authentication.getPrincipal()).thenReturn(adminUser);
         when(userRepository.findByEmail("newadmin@example.com")).thenReturn(Optional.empty());
         when(roleRepository.findByName("ROLE_USER")).thenReturn(Optional.empty());
 
         // Act & Assert
         IllegalStateException exception = assertThrows(IllegalStateException.class,
-                () -> authService.registerAdmin(registerRequest));
+                () -> authService.registerAdmin(registerRequest, adminUser));
         assertEquals("Role 'ROLE_USER' não encontrada", exception.getMessage());
 
-        verify(securityContext).getAuthentication();
-        verify(authentication).getPrincipal();
         verify(userRepository).findByEmail("newadmin@example.com");
         verify(roleRepository).findByName("ROLE_USER");
         verify(passwordEncoder, never()).encode(anyString());
@@ -279,19 +256,15 @@ public class AuthServiceTest {
                 "newadmin", "newadmin@example.com", "password", null
         );
 
-        when(securityContext.getAuthentication()).thenReturn(authentication);
-        when(authentication.getPrincipal()).thenReturn(adminUser);
         when(userRepository.findByEmail("newadmin@example.com")).thenReturn(Optional.empty());
         when(roleRepository.findByName("ROLE_USER")).thenReturn(Optional.of(userRole));
         when(roleRepository.findByName("ROLE_ADMIN")).thenReturn(Optional.empty());
 
         // Act & Assert
         IllegalStateException exception = assertThrows(IllegalStateException.class,
-                () -> authService.registerAdmin(registerRequest));
+                () -> authService.registerAdmin(registerRequest, adminUser));
         assertEquals("Role 'ROLE_ADMIN' não encontrada", exception.getMessage());
 
-        verify(securityContext).getAuthentication();
-        verify(authentication).getPrincipal();
         verify(userRepository).findByEmail("newadmin@example.com");
         verify(roleRepository).findByName("ROLE_USER");
         verify(roleRepository).findByName("ROLE_ADMIN");
@@ -0,0 +1,262 @@
+package com.amigo.secreto.services;
+
+import com.amigo.secreto.dtos.BatchDrawResponseDTO;
+import com.amigo.secreto.dtos.BatchDrawResultDTO;
+import com.amigo.secreto.models.Draw;
+import com.amigo.secreto.models.ExclusionRule;
+import com.amigo.secreto.models.Group;
+import com.amigo.secreto.models.User;
+import com.amigo.secreto.repositories.DrawRepository;
+import com.amigo.secreto.repositories.ExclusionRuleRepository;
+import com.amigo.secreto.repositories.GroupRepository;
+import com.amigo.secreto.repositories.UserRepository;
+import com.amigo.secreto.services.events.DrawCompletedEvent;
+import com.amigo.secreto.services.pairing.ConstrainedPairingEngine;
+import com.amigo.secreto.services.pairing.PairingEngines;
+import com.amigo.secreto.services.pairing.RandomDerangementPairingEngine;
+import com.amigo.secreto.services.pairing.SingleCyclePairingEngine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class BatchDrawServiceTest {
+
+    @Mock
+    private GroupRepository groupRepository;
+
+    @Mock
+    private DrawRepository drawRepository;
+
+    @Mock
+    private ExclusionRuleRepository exclusionRuleRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private DrawService drawService;
+    private BatchDrawService batchDrawService;
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        PairingEngines engines = new PairingEngines(List.of(new RandomDerangementPairingEngine(), new SingleCyclePairingEngine()));
+        drawService = new DrawService(drawRepository, groupRepository, userRepository, engines,
+                new ConstrainedPairingEngine(), new SimpleMeterRegistry(), eventPublisher);
+        batchDrawService = batchDrawService(100);
+
+        owner = user("owner");
+        when(exclusionRuleRepository.findByGroupIdIn(anyCollection())).thenReturn(List.of());
+        when(drawRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Draw> draws = invocation.getArgument(0);
+            draws.forEach(draw -> draw.setId(UUID.randomUUID()));
+            return draws;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        batchDrawService.shutdown();
+    }
+
+    @Test
+    void createDrawsShouldReportResultPerGroup() {
+        Group ready = group(owner.getId(), 5);
+        Group otherOwner = group(UUID.randomUUID(), 4);
+        Group drawn = group(owner.getId(), 4);
+        drawn.setDraw(new Draw());
+        Group tooSmall = group(owner.getId(), 1);
+        UUID missing = UUID.randomUUID();
+        when(groupRepository.findForDrawByIdIn(anyCollection())).thenReturn(List.of(ready, otherOwner, drawn, tooSmall));
+
+        BatchDrawResponseDTO response = batchDrawService.createDraws(
+                List.of(ready.getId(), otherOwner.getId(), drawn.getId(), tooSmall.getId(), missing), owner);
+
+        assertEquals(1, response.drawn());
+        assertEquals(4, response.failed());
+        assertEquals(List.of(
+                BatchDrawResultDTO.Status.DRAWN,
+                BatchDrawResultDTO.Status.FORBIDDEN,
+                BatchDrawResultDTO.Status.ALREADY_DRAWN,
+                BatchDrawResultDTO.Status.FAILED,
+                BatchDrawResultDTO.Status.NOT_FOUND
+        ), response.results().stream().map(BatchDrawResultDTO::status).toList());
+        assertNotNull(response.results().get(0).drawId());
+        assertEquals(5, ready.getDraw().pairCount());
+        verify(entityManager).lock(ready, LockModeType.OPTIMISTIC_FORCE_INCREMENT);
+        verify(drawRepository).saveAll(List.of(ready.getDraw()));
+        verify(eventPublisher).publishEvent(new DrawCompletedEvent(ready.getId(), ready.getDraw().getId()));
+    }
+
+    @Test
+    void createDrawsShouldDrawManyGroupsInParallel() {
+        List<Group> groups = IntStream.range(0, 50).mapToObj(i -> group(owner.getId(), 10 + i)).toList();
+        when(groupRepository.findForDrawByIdIn(anyCollection())).thenReturn(groups);
+
+        BatchDrawResponseDTO response = batchDrawService.createDraws(groups.stream().map(Group::getId).toList(), owner);
+
+        assertEquals(50, response.drawn());
+        for (Group group : groups) {
+            Set<UUID> receivers = new HashSet<>();
+            group.getDraw().forEachPair((giver, receiver) -> {
+                assertNotEquals(giver, receiver, "Usuário não pode tirar a si mesmo");
+                receivers.add(receiver);
+            });
+            assertEquals(group.getParticipants().size(), receivers.size());
+        }
+        verify(drawRepository, times(1)).saveAll(anyList());
+    }
+
+    @Test
+    void createDrawsShouldReportImpossibleExclusions() {
+        Group group = group(owner.getId(), 2);
+        List<User> members = new ArrayList<>(group.getParticipants());
+        ExclusionRule rule = new ExclusionRule(group, members.get(0).getId(), members.get(1).getId());
+        when(groupRepository.findForDrawByIdIn(anyCollection())).thenReturn(List.of(group));
+        when(exclusionRuleRepository.findByGroupIdIn(anyCollection())).thenReturn(List.of(rule));
+
+        BatchDrawResponseDTO response = batchDrawService.createDraws(List.of(group.getId()), owner);
+
+        assertEquals(BatchDrawResultDTO.Status.FAILED, response.results().get(0).status());
+        assertNull(group.getDraw());
+        verify(entityManager, never()).lock(any(), any());
+    }
+
+    @Test
+    void createDrawsShouldCommitEachChunkSeparately() {
+        BatchDrawService chunked = batchDrawService(2);
+        List<Group> groups = IntStream.range(0, 5).mapToObj(i -> group(owner.getId(), 4)).toList();
+        when(groupRepository.findForDrawByIdIn(anyCollection())).thenAnswer(invocation -> {
+            Collection<UUID> ids = invocation.getArgument(0);
+            return groups.stream().filter(group -> ids.contains(group.getId())).toList();
+        });
+
+        try {
+            BatchDrawResponseDTO response = chunked.createDraws(groups.stream().map(Group::getId).toList(), owner);
+
+            assertEquals(5, response.drawn());
+            verify(groupRepository, times(3)).findForDrawByIdIn(anyCollection());
+            verify(drawRepository, times(3)).saveAll(anyList());
+            verify(transactionManager, times(3)).commit(any());
+        } finally {
+            chunked.shutdown();
+        }
+    }
+
+    @Test
+    void createDrawsShouldRetryChunkGroupByGroupAfterConcurrentDraw() {
+        Group free = group(owner.getId(), 4);
+        Group contested = group(owner.getId(), 4);
+        // Cada transação recarrega os grupos do banco; o sorteio da outra requisição só aparece depois do conflito
+        when(groupRepository.findForDrawByIdIn(anyCollection())).thenAnswer(invocation -> {
+            Collection<UUID> ids = invocation.getArgument(0);
+            return Stream.of(free, contested)
+                    .filter(group -> ids.contains(group.getId()))
+                    .map(BatchDrawServiceTest::reload)
+                    .toList();
+        });
+        doAnswer(invocation -> {
+            contested.setDraw(new Draw());
+            throw new ObjectOptimisticLockingFailureException(Group.class, contested.getId());
+        }).doNothing().when(transactionManager).commit(any());
+
+        BatchDrawResponseDTO response = batchDrawService.createDraws(List.of(free.getId(), contested.getId()), owner);
+
+        assertEquals(1, response.drawn());
+        assertEquals(1, response.failed());
+        assertEquals(List.of(
+                BatchDrawResultDTO.Status.DRAWN,
+                BatchDrawResultDTO.Status.ALREADY_DRAWN
+        ), response.results().stream().map(BatchDrawResultDTO::status).toList());
+        assertNotNull(response.results().get(0).drawId());
+        verify(transactionManager, times(3)).commit(any());
+    }
+
+    @Test
+    void createDrawsShouldReportGroupThatStillConflictsAlone() {
+        Group contested = group(owner.getId(), 4);
+        when(groupRepository.findForDrawByIdIn(anyCollection())).thenAnswer(invocation -> List.of(reload(contested)));
+        doThrow(new ObjectOptimisticLockingFailureException(Group.class, contested.getId()))
+                .when(transactionManager).commit(any());
+
+        BatchDrawResponseDTO response = batchDrawService.createDraws(List.of(contested.getId()), owner);
+
+        assertEquals(0, response.drawn());
+        assertEquals(new BatchDrawResultDTO(contested.getId(), BatchDrawResultDTO.Status.ALREADY_DRAWN, null,
+                BatchDrawService.CONCURRENT_DRAW), response.results().get(0));
+    }
+
+    @Test
+    void createDrawsShouldRejectEmptyAndOversizedRequests() {
+        assertThrows(IllegalArgumentException.class, () -> batchDrawService.createDraws(List.of(), owner));
+
+        List<UUID> tooMany = IntStream.rangeClosed(0, BatchDrawService.MAX_GROUPS).mapToObj(i -> UUID.randomUUID()).toList();
+        assertThrows(IllegalArgumentException.class, () -> batchDrawService.createDraws(tooMany, owner));
+    }
+
+    private BatchDrawService batchDrawService(int chunkSize) {
+        return new BatchDrawService(groupRepository, drawRepository, exclusionRuleRepository, drawService,
+                entityManager, new TransactionTemplate(transactionManager), 2, chunkSize);
+    }
+
+    // Mesmo estado do "banco", mas em uma instância nova, como depois do clear do EntityManager no rollback
+    private static Group reload(Group group) {
+        Group copy = new Group();
+        copy.setId(group.getId());
+        copy.setOwnerId(group.getOwnerId());
+        copy.setParticipants(new LinkedHashSet<>(group.getParticipants()));
+        copy.setDraw(group.getDraw());
+        return copy;
+    }
+
+    private static Group group(UUID ownerId, int size) {
+        Group group = new Group();
+        group.setId(UUID.randomUUID());
+        group.setOwnerId(ownerId);
+        Set<User> participants = new LinkedHashSet<>();
+        for (int i = 0; i < size; i++) {
+            participants.add(user("user" + i));
+        }
+        group.setParticipants(participants);
+        return group;
+    }
+
+    private static User user(String username) {
+        User user = new User();
+        user.setId(UUID.randomUUID());
+        user.setUsername(username);
+        return user;
+    }
+}
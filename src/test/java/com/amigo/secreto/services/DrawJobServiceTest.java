@@ -0,0 +1,243 @@
+package com.amigo.secreto.services;
+
+import com.amigo.secreto.dtos.DrawJobDTO;
+import com.amigo.secreto.dtos.GroupSummaryDTO;
+import com.amigo.secreto.models.DrawJob;
+import com.amigo.secreto.models.DrawJobStatus;
+import com.amigo.secreto.models.User;
+import com.amigo.secreto.repositories.DrawJobRepository;
+import com.amigo.secreto.repositories.DrawRepository;
+import com.amigo.secreto.repositories.GroupRepository;
+import com.amigo.secreto.services.exceptions.DrawAlreadyDoneException;
+import com.amigo.secreto.services.exceptions.DrawPairNumberException;
+import com.amigo.secreto.services.exceptions.ForbiddenException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class DrawJobServiceTest {
+
+    @Mock
+    private DrawJobRepository drawJobRepository;
+
+    @Mock
+    private GroupRepository groupRepository;
+
+    @Mock
+    private DrawRepository drawRepository;
+
+    @Mock
+    private DrawService drawService;
+
+    private DrawJobService drawJobService;
+    private User currentUser;
+    private UUID groupId;
+
+    @BeforeEach
+    void setUp() {
+        drawJobService = new DrawJobService(drawJobRepository, groupRepository, drawRepository, drawService, 1, 10);
+
+        currentUser = new User();
+        currentUser.setId(UUID.randomUUID());
+        currentUser.setUsername("owner");
+        groupId = UUID.randomUUID();
+    }
+
+    @AfterEach
+    void tearDown() {
+        drawJobService.shutdown();
+    }
+
+    @Test
+    void enqueueShouldPersistPendingJob() {
+        GroupSummaryDTO group = new GroupSummaryDTO(groupId, "Grupo", currentUser.getId(), null, 4, false);
+        when(groupRepository.findSummaryById(groupId)).thenReturn(Optional.of(group));
+        when(drawJobRepository.save(any(DrawJob.class))).thenAnswer(invocation -> {
+            DrawJob job = invocation.getArgument(0);
+            job.setId(UUID.randomUUID());
+            return job;
+        });
+
+        DrawJobDTO result = drawJobService.enqueue(groupId, currentUser);
+
+        assertNotNull(result.id());
+        assertEquals(groupId, result.groupId());
+        assertEquals(DrawJobStatus.PENDING, result.status());
+    }
+
+    @Test
+    void enqueueShouldRejectWhenNotOwner() {
+        GroupSummaryDTO group = new GroupSummaryDTO(groupId, "Grupo", UUID.randomUUID(), null, 4, false);
+        when(groupRepository.findSummaryById(groupId)).thenReturn(Optional.of(group));
+
+        assertThrows(ForbiddenException.class, () -> drawJobService.enqueue(groupId, currentUser));
+        verify(drawJobRepository, never()).save(any());
+    }
+
+    @Test
+    void enqueueShouldRejectWhenAlreadyDrawn() {
+        GroupSummaryDTO group = new GroupSummaryDTO(groupId, "Grupo", currentUser.getId(), null, 4, true);
+        when(groupRepository.findSummaryById(groupId)).thenReturn(Optional.of(group));
+
+        assertThrows(DrawAlreadyDoneException.class, () -> drawJobService.enqueue(groupId, currentUser));
+        verify(drawJobRepository, never()).save(any());
+    }
+
+    @Test
+    void runShouldMarkJobAsDone() {
+        DrawJob job = pendingJob();
+        UUID drawId = UUID.randomUUID();
+        when(drawJobRepository.transition(job.getId(), DrawJobStatus.PENDING, DrawJobStatus.RUNNING)).thenReturn(1);
+        when(drawJobRepository.findById(job.getId())).thenReturn(Optional.of(job));
+        when(drawService.createDrawFor(groupId, currentUser.getId())).thenReturn(drawId);
+
+        drawJobService.run(job.getId());
+
+        assertEquals(DrawJobStatus.DONE, job.getStatus());
+        assertEquals(drawId, job.getDrawId());
+        verify(drawJobRepository).save(job);
+    }
+
+    @Test
+    void runShouldMarkJobAsFailed() {
+        DrawJob job = pendingJob();
+        when(drawJobRepository.transition(job.getId(), DrawJobStatus.PENDING, DrawJobStatus.RUNNING)).thenReturn(1);
+        when(drawJobRepository.findById(job.getId())).thenReturn(Optional.of(job));
+        when(drawService.createDrawFor(groupId, currentUser.getId()))
+                .thenThrow(new DrawPairNumberException("O grupo precisa ter pelo menos 2 participantes para realizar o sorteio."));
+
+        drawJobService.run(job.getId());
+
+        assertEquals(DrawJobStatus.FAILED, job.getStatus());
+        assertEquals("O grupo precisa ter pelo menos 2 participantes para realizar o sorteio.", job.getError());
+    }
+
+    @Test
+    void runShouldLinkExistingDrawWhenGroupWasAlreadyDrawn() {
+        // Job reenviado depois de uma parada: o sorteio foi gravado, mas o status DONE não
+        DrawJob job = pendingJob();
+        UUID drawId = UUID.randomUUID();
+        when(drawJobRepository.transition(job.getId(), DrawJobStatus.PENDING, DrawJobStatus.RUNNING)).thenReturn(1);
+        when(drawJobRepository.findById(job.getId())).thenReturn(Optional.of(job));
+        when(drawService.createDrawFor(groupId, currentUser.getId()))
+                .thenThrow(new DrawAlreadyDoneException("Sorteio já realizado para o grupo de id " + groupId));
+        when(drawRepository.findIdByGroupId(groupId)).thenReturn(Optional.of(drawId));
+
+        drawJobService.run(job.getId());
+
+        assertEquals(DrawJobStatus.DONE, job.getStatus());
+        assertEquals(drawId, job.getDrawId());
+        assertNull(job.getError());
+        verify(drawJobRepository).save(job);
+    }
+
+    @Test
+    void runShouldLinkDrawCreatedConcurrently() {
+        DrawJob job = pendingJob();
+        UUID drawId = UUID.randomUUID();
+        when(drawJobRepository.transition(job.getId(), DrawJobStatus.PENDING, DrawJobStatus.RUNNING)).thenReturn(1);
+        when(drawJobRepository.findById(job.getId())).thenReturn(Optional.of(job));
+        when(drawService.createDrawFor(groupId, currentUser.getId()))
+                .thenThrow(new DataIntegrityViolationException("duplicate key value violates unique constraint \"tb_draw_group_id_key\""));
+        when(drawRepository.findIdByGroupId(groupId)).thenReturn(Optional.of(drawId));
+
+        drawJobService.run(job.getId());
+
+        assertEquals(DrawJobStatus.DONE, job.getStatus());
+        assertEquals(drawId, job.getDrawId());
+    }
+
+    @Test
+    void runShouldStoreStableMessageForOptimisticLockFailure() {
+        DrawJob job = pendingJob();
+        when(drawJobRepository.transition(job.getId(), DrawJobStatus.PENDING, DrawJobStatus.RUNNING)).thenReturn(1);
+        when(drawJobRepository.findById(job.getId())).thenReturn(Optional.of(job));
+        when(drawService.createDrawFor(groupId, currentUser.getId()))
+                .thenThrow(new ObjectOptimisticLockingFailureException("com.amigo.secreto.models.Group", groupId));
+        when(drawRepository.findIdByGroupId(groupId)).thenReturn(Optional.empty());
+
+        drawJobService.run(job.getId());
+
+        assertEquals(DrawJobStatus.FAILED, job.getStatus());
+        assertEquals(DrawJobService.CONCURRENT_DRAW, job.getError());
+    }
+
+    @Test
+    void runShouldNotExposeUnexpectedExceptionMessage() {
+        DrawJob job = pendingJob();
+        when(drawJobRepository.transition(job.getId(), DrawJobStatus.PENDING, DrawJobStatus.RUNNING)).thenReturn(1);
+        when(drawJobRepository.findById(job.getId())).thenReturn(Optional.of(job));
+        when(drawService.createDrawFor(groupId, currentUser.getId()))
+                .thenThrow(new DataAccessResourceFailureException("Connection to db:5432 refused"));
+
+        assertThrows(DataAccessResourceFailureException.class, () -> drawJobService.run(job.getId()));
+
+        assertEquals(DrawJobStatus.FAILED, job.getStatus());
+        assertEquals(DrawJobService.UNEXPECTED_ERROR, job.getError());
+        verify(drawJobRepository).save(job);
+    }
+
+    @Test
+    void runShouldMarkJobAsFailedWhenErrorEscapes() {
+        DrawJob job = pendingJob();
+        when(drawJobRepository.transition(job.getId(), DrawJobStatus.PENDING, DrawJobStatus.RUNNING)).thenReturn(1);
+        when(drawJobRepository.findById(job.getId())).thenReturn(Optional.of(job));
+        when(drawService.createDrawFor(groupId, currentUser.getId())).thenThrow(new OutOfMemoryError("Java heap space"));
+
+        assertThrows(OutOfMemoryError.class, () -> drawJobService.run(job.getId()));
+
+        assertEquals(DrawJobStatus.FAILED, job.getStatus());
+        assertEquals(DrawJobService.UNEXPECTED_ERROR, job.getError());
+        verify(drawJobRepository).save(job);
+    }
+
+    @Test
+    void runShouldRequeueJobWhenFinalSaveFails() {
+        DrawJob job = pendingJob();
+        when(drawJobRepository.transition(job.getId(), DrawJobStatus.PENDING, DrawJobStatus.RUNNING)).thenReturn(1);
+        when(drawJobRepository.findById(job.getId())).thenReturn(Optional.of(job));
+        when(drawService.createDrawFor(groupId, currentUser.getId())).thenReturn(UUID.randomUUID());
+        when(drawJobRepository.save(job)).thenThrow(new DataAccessResourceFailureException("Connection reset"));
+
+        assertThrows(DataAccessResourceFailureException.class, () -> drawJobService.run(job.getId()));
+
+        // A nova execução encontra o sorteio já gravado e marca o job como DONE
+        verify(drawJobRepository).transition(job.getId(), DrawJobStatus.RUNNING, DrawJobStatus.PENDING);
+    }
+
+    @Test
+    void runShouldSkipJobClaimedByAnotherWorker() {
+        UUID jobId = UUID.randomUUID();
+        when(drawJobRepository.transition(jobId, DrawJobStatus.PENDING, DrawJobStatus.RUNNING)).thenReturn(0);
+
+        drawJobService.run(jobId);
+
+        verify(drawService, never()).createDrawFor(any(), any());
+        verify(drawJobRepository, never()).save(any());
+    }
+
+    private DrawJob pendingJob() {
+        DrawJob job = new DrawJob();
+        job.setId(UUID.randomUUID());
+        job.setGroupId(groupId);
+        job.setRequestedBy(currentUser.getId());
+        return job;
+    }
+}
@@ -0,0 +1,106 @@
+package com.amigo.secreto.services;
+
+import com.amigo.secreto.repositories.DrawRepository;
+import com.amigo.secreto.repositories.GroupRepository;
+import com.amigo.secreto.services.events.DrawCompletedEvent;
+import com.amigo.secreto.services.exceptions.ForbiddenException;
+import com.amigo.secreto.services.exceptions.ResourceNotFoundException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class DrawNotificationServiceTest {
+
+    @Mock
+    private GroupRepository groupRepository;
+
+    @Mock
+    private DrawRepository drawRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private DrawNotificationService drawNotificationService;
+    private UUID groupId;
+    private UUID userId;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        drawNotificationService = new DrawNotificationService(groupRepository, drawRepository, new ObjectMapper(),
+                meterRegistry, Duration.ofMinutes(5), 1);
+
+        groupId = UUID.randomUUID();
+        userId = UUID.randomUUID();
+        when(groupRepository.existsParticipant(groupId, userId)).thenReturn(true);
+        when(drawRepository.findIdByGroupId(groupId)).thenReturn(Optional.empty());
+    }
+
+    @AfterEach
+    void tearDown() {
+        drawNotificationService.shutdown();
+    }
+
+    @Test
+    void subscribeShouldWaitUntilDrawCompletes() {
+        drawNotificationService.subscribe(groupId, userId);
+        drawNotificationService.subscribe(groupId, userId);
+
+        assertEquals(2, drawNotificationService.subscriberCount());
+        assertEquals(2.0, meterRegistry.get("draw.events.subscribers").gauge().value());
+    }
+
+    @Test
+    void drawCompletedShouldReleaseAllSubscribersOfTheGroup() {
+        UUID otherGroupId = UUID.randomUUID();
+        when(groupRepository.existsParticipant(otherGroupId, userId)).thenReturn(true);
+        when(drawRepository.findIdByGroupId(otherGroupId)).thenReturn(Optional.empty());
+        drawNotificationService.subscribe(groupId, userId);
+        drawNotificationService.subscribe(groupId, userId);
+        drawNotificationService.subscribe(otherGroupId, userId);
+
+        drawNotificationService.onDrawCompleted(new DrawCompletedEvent(groupId, UUID.randomUUID()));
+
+        assertEquals(1, drawNotificationService.subscriberCount());
+    }
+
+    @Test
+    void subscribeShouldNotWaitWhenGroupIsAlreadyDrawn() {
+        when(drawRepository.findIdByGroupId(groupId)).thenReturn(Optional.of(UUID.randomUUID()));
+
+        assertNotNull(drawNotificationService.subscribe(groupId, userId));
+
+        assertEquals(0, drawNotificationService.subscriberCount());
+    }
+
+    @Test
+    void subscribeShouldRejectNonParticipants() {
+        UUID strangerId = UUID.randomUUID();
+        when(groupRepository.existsParticipant(groupId, strangerId)).thenReturn(false);
+        when(groupRepository.existsById(groupId)).thenReturn(true);
+
+        assertThrows(ForbiddenException.class, () -> drawNotificationService.subscribe(groupId, strangerId));
+        assertEquals(0, drawNotificationService.subscriberCount());
+    }
+
+    @Test
+    void subscribeShouldFailForUnknownGroup() {
+        UUID unknownGroupId = UUID.randomUUID();
+
+        assertThrows(ResourceNotFoundException.class, () -> drawNotificationService.subscribe(unknownGroupId, userId));
+    }
+}
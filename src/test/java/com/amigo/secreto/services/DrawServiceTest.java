@@ -3,26 +3,39 @@ package com.amigo.secreto.services;
 import com.amigo.secreto.dtos.DrawResponseDTO;
 import com.amigo.secreto.dtos.FriendDrawDTO;
 import com.amigo.secreto.models.Draw;
+import com.amigo.secreto.models.ExclusionRule;
 import com.amigo.secreto.models.Group;
+import com.amigo.secreto.models.PackedPairs;
+import com.amigo.secreto.models.PairingMode;
 import com.amigo.secreto.models.User;
 import com.amigo.secreto.repositories.DrawRepository;
 import com.amigo.secreto.repositories.GroupRepository;
 import com.amigo.secreto.repositories.UserRepository;
+import com.amigo.secreto.repositories.projections.FriendProjection;
+import com.amigo.secreto.repositories.projections.PackedDrawProjection;
+import com.amigo.secreto.services.events.DrawCompletedEvent;
 import com.amigo.secreto.services.exceptions.DrawAlreadyDoneException;
+import com.amigo.secreto.services.exceptions.DrawConstraintException;
 import com.amigo.secreto.services.exceptions.DrawPairNumberException;
 import com.amigo.secreto.services.exceptions.ForbiddenException;
 import com.amigo.secreto.services.exceptions.ResourceNotFoundException;
+import com.amigo.secreto.services.pairing.ConstrainedPairingEngine;
+import com.amigo.secreto.services.pairing.PairingEngines;
+import com.amigo.secreto.services.pairing.RandomDerangementPairingEngine;
+import com.amigo.secreto.services.pairing.SingleCyclePairingEngine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContext;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.*;
 
@@ -42,11 +55,18 @@ public class DrawServiceTest {
     @Mock
     private UserRepository userRepository;
 
-    @Mock
-    private Authentication authentication;
+    @Spy
+    private PairingEngines pairingEngines = new PairingEngines(
+            List.of(new RandomDerangementPairingEngine(), new SingleCyclePairingEngine()));
+
+    @Spy
+    private ConstrainedPairingEngine constrainedPairingEngine = new ConstrainedPairingEngine();
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
 
     @Mock
-    private SecurityContext securityContext;
+    private ApplicationEventPublisher eventPublisher;
 
     @InjectMocks
     private DrawService drawService;
@@ -60,11 +80,6 @@ public class DrawServiceTest {
 
     @BeforeEach
     void setUp() {
-        // Configure SecurityContextHolder
-        when(securityContext.getAuthentication()).thenReturn(authentication);
-        SecurityContextHolder.setContext(securityContext);
-        when(authentication.getName()).thenReturn("user@example.com");
-
         // Create test users
         currentUser = new User();
         currentUser.setId(UUID.randomUUID());
@@ -90,7 +105,7 @@ public class DrawServiceTest {
         group = new Group();
         group.setId(groupId);
         group.setOwnerId(currentUser.getId());
-        group.setParticipants(participants);
+        group.setParticipants(new LinkedHashSet<>(participants));
 
         // Create draw
         drawId = UUID.randomUUID();
@@ -101,9 +116,8 @@ public class DrawServiceTest {
         draw.setPairs(pairs);
 
         // Set up repository mocks
-        when(userRepository.findByUsername("user@example.com")).thenReturn(Optional.of(currentUser));
-        when(groupRepository.findById(groupId)).thenReturn(Optional.of(group));
-        when(drawRepository.findById(drawId)).thenReturn(Optional.of(draw));
+        when(groupRepository.findForDrawById(groupId)).thenReturn(Optional.of(group));
+        when(drawRepository.findWithGroupById(drawId)).thenReturn(Optional.of(draw));
     }
 
     @Test
@@ -116,13 +130,14 @@ public class DrawServiceTest {
         });
 
         // Act
-        DrawResponseDTO result = drawService.createDraw(groupId);
+        DrawResponseDTO result = drawService.createDraw(groupId, currentUser);
 
         // Assert
         assertNotNull(result);
         assertEquals(drawId, result.id());
         verify(drawRepository).save(any(Draw.class));
         verify(groupRepository).save(group);
+        verify(eventPublisher).publishEvent(new DrawCompletedEvent(groupId, drawId));
         assertNotNull(group.getDraw());
         
         // Verificar se não há ninguém tirando a si mesmo
@@ -140,7 +155,7 @@ public class DrawServiceTest {
         // Act & Assert
         ForbiddenException exception = assertThrows(
                 ForbiddenException.class,
-                () -> drawService.createDraw(groupId)
+                () -> drawService.createDraw(groupId, currentUser)
         );
         assertEquals("Apenas o criador do grupo pode realizar o sorteio", exception.getMessage());
     }
@@ -153,66 +168,303 @@ public class DrawServiceTest {
         // Act & Assert
         DrawAlreadyDoneException exception = assertThrows(
                 DrawAlreadyDoneException.class,
-                () -> drawService.createDraw(groupId)
+                () -> drawService.createDraw(groupId, currentUser)
         );
         assertEquals("Sorteio já realizado para o grupo de id " + groupId, exception.getMessage());
     }
 
+    @Test
+    void createDrawFor_ReturnsIdOfSavedDraw() {
+        // Imita o SimpleJpaRepository.save: @Version null é entidade nova (persist na própria instância),
+        // qualquer outro valor vira merge de uma cópia e a instância original fica sem id
+        when(drawRepository.save(any(Draw.class))).thenAnswer(invocation -> {
+            Draw savedDraw = invocation.getArgument(0);
+            if (savedDraw.getVersion() != null) {
+                Draw merged = new Draw();
+                merged.setId(UUID.randomUUID());
+                return merged;
+            }
+            savedDraw.setId(drawId);
+            return savedDraw;
+        });
+
+        UUID result = drawService.createDrawFor(groupId, currentUser.getId());
+
+        assertEquals(drawId, result);
+        assertEquals(drawId, group.getDraw().getId());
+    }
+
     @Test
     void getMyFriend_Success() {
         // Arrange
-        group.setDraw(draw);
         User friend = participants.get(0);
-        Map<UUID, UUID> pairs = new HashMap<>();
-        pairs.put(currentUser.getId(), friend.getId());
-        draw.setPairs(pairs);
-
-        when(userRepository.findById(friend.getId())).thenReturn(Optional.of(friend));
+        FriendProjection projection = friendProjection(friend);
+        when(drawRepository.findFriend(groupId, currentUser.getId())).thenReturn(Optional.of(projection));
 
         // Act
-        FriendDrawDTO result = drawService.getMyFriend(groupId);
+        FriendDrawDTO result = drawService.getMyFriend(groupId, currentUser);
 
         // Assert
         assertNotNull(result);
         assertEquals(friend.getId(), result.friendId());
         assertEquals(friend.getUsername(), result.friendUsername());
         assertEquals(friend.getWishItem(), result.wishItem());
+        verify(groupRepository, never()).findById(any());
+        verify(drawRepository, never()).findPackedByGroupId(any());
+        verify(userRepository, never()).findById(any());
+    }
+
+    @Test
+    void getMyFriend_DefaultWishItem() {
+        // Arrange
+        User friend = participants.get(1);
+        FriendProjection projection = friendProjection(friend);
+        when(drawRepository.findFriend(groupId, currentUser.getId())).thenReturn(Optional.of(projection));
+
+        // Act
+        FriendDrawDTO result = drawService.getMyFriend(groupId, currentUser);
+
+        // Assert
+        assertEquals("Nenhum item desejado cadastrado", result.wishItem());
     }
 
     @Test
     void getMyFriend_DrawNotYetDone() {
         // Arrange
-        group.setDraw(null);
+        when(drawRepository.findFriend(groupId, currentUser.getId())).thenReturn(Optional.empty());
+        when(groupRepository.existsById(groupId)).thenReturn(true);
+        when(drawRepository.findPackedByGroupId(groupId)).thenReturn(Optional.empty());
 
         // Act & Assert
         ResourceNotFoundException exception = assertThrows(
                 ResourceNotFoundException.class,
-                () -> drawService.getMyFriend(groupId)
+                () -> drawService.getMyFriend(groupId, currentUser)
         );
         assertEquals("O sorteio ainda não foi realizado para este grupo", exception.getMessage());
     }
 
     @Test
-    void getMyFriend_UseFallbackDrawRepository() {
+    void getMyFriend_GroupNotFound() {
+        // Arrange
+        when(drawRepository.findFriend(groupId, currentUser.getId())).thenReturn(Optional.empty());
+        when(groupRepository.existsById(groupId)).thenReturn(false);
+
+        // Act & Assert
+        ResourceNotFoundException exception = assertThrows(
+                ResourceNotFoundException.class,
+                () -> drawService.getMyFriend(groupId, currentUser)
+        );
+        assertEquals("Grupo de id " + groupId + " não encontrado", exception.getMessage());
+    }
+
+    @Test
+    void getMyFriend_NotParticipant() {
         // Arrange
-        group.setDraw(null); // Grupo não tem draw diretamente
-        draw.setGroup(group); // Garantir que o draw está associado ao grupo
-        group.setDraw(draw); // Garantir que o grupo tem o draw
+        when(drawRepository.findFriend(groupId, currentUser.getId())).thenReturn(Optional.empty());
+        when(drawRepository.findPackedByGroupId(groupId)).thenReturn(Optional.of(packedDraw(null, null)));
+
+        // Act & Assert
+        ResourceNotFoundException exception = assertThrows(
+                ResourceNotFoundException.class,
+                () -> drawService.getMyFriend(groupId, currentUser)
+        );
+        assertEquals("Você não é participante deste grupo", exception.getMessage());
+    }
 
+    @Test
+    void getMyFriend_PackedDraw() {
+        // Arrange
         User friend = participants.get(0);
-        Map<UUID, UUID> pairs = new HashMap<>();
-        pairs.put(currentUser.getId(), friend.getId());
-        draw.setPairs(pairs);
+        List<UUID> sortedIds = new ArrayList<>(List.of(currentUser.getId(), friend.getId()));
+        Collections.sort(sortedIds);
+        PackedPairs packed = PackedPairs.encode(sortedIds, new int[]{1, 0});
 
+        when(drawRepository.findFriend(groupId, currentUser.getId())).thenReturn(Optional.empty());
+        when(drawRepository.findPackedByGroupId(groupId))
+                .thenReturn(Optional.of(packedDraw(packed.participantOrder(), packed.packedReceivers())));
         when(userRepository.findById(friend.getId())).thenReturn(Optional.of(friend));
-        when(drawRepository.findByGroupId(groupId)).thenReturn(Optional.of(draw));
 
         // Act
-        FriendDrawDTO result = drawService.getMyFriend(groupId);
+        FriendDrawDTO result = drawService.getMyFriend(groupId, currentUser);
 
         // Assert
-        assertNotNull(result);
         assertEquals(friend.getId(), result.friendId());
         assertEquals(friend.getUsername(), result.friendUsername());
+        assertEquals(friend.getWishItem(), result.wishItem());
+        verify(drawRepository, never()).findWithGroupById(any());
+    }
+
+    @Test
+    void getMyFriend_PackedDrawNotParticipant() {
+        // Arrange
+        User friend = participants.get(0);
+        User other = participants.get(1);
+        List<UUID> sortedIds = new ArrayList<>(List.of(other.getId(), friend.getId()));
+        Collections.sort(sortedIds);
+        PackedPairs packed = PackedPairs.encode(sortedIds, new int[]{1, 0});
+
+        when(drawRepository.findFriend(groupId, currentUser.getId())).thenReturn(Optional.empty());
+        when(drawRepository.findPackedByGroupId(groupId))
+                .thenReturn(Optional.of(packedDraw(packed.participantOrder(), packed.packedReceivers())));
+
+        // Act & Assert
+        ResourceNotFoundException exception = assertThrows(
+                ResourceNotFoundException.class,
+                () -> drawService.getMyFriend(groupId, currentUser)
+        );
+        assertEquals("Você não é participante deste grupo", exception.getMessage());
+        verify(userRepository, never()).findById(any());
+    }
+
+    @Test
+    void createDraw_PackedStorageAboveThreshold() {
+        // Arrange
+        ReflectionTestUtils.setField(drawService, "packedThreshold", 4);
+        when(drawRepository.save(any(Draw.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        DrawResponseDTO result = drawService.createDraw(groupId, currentUser);
+
+        // Assert
+        Draw saved = group.getDraw();
+        assertTrue(saved.isPacked());
+        assertTrue(saved.getPairs().isEmpty());
+        assertEquals(participants.size(), result.pairs().size());
+        for (User participant : participants) {
+            UUID receiver = saved.receiverOf(participant.getId());
+            assertNotNull(receiver);
+            assertNotEquals(participant.getId(), receiver, "Usuário não pode tirar a si mesmo");
+        }
+    }
+
+    @Test
+    void createDraw_OddNumberOfParticipants() {
+        // Arrange
+        User extra = new User();
+        extra.setId(UUID.randomUUID());
+        extra.setUsername("Extra");
+        participants.add(extra);
+        group.getParticipants().add(extra);
+        when(drawRepository.save(any(Draw.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        DrawResponseDTO result = drawService.createDraw(groupId, currentUser);
+
+        // Assert
+        assertEquals(5, result.pairs().size());
+        result.pairs().forEach((giver, receiver) -> assertNotEquals(giver, receiver, "Usuário não pode tirar a si mesmo"));
+    }
+
+    @Test
+    void createDraw_SingleCycleMode() {
+        // Arrange
+        User extra = new User();
+        extra.setId(UUID.randomUUID());
+        extra.setUsername("Extra");
+        group.getParticipants().add(extra);
+        group.setPairingMode(PairingMode.SINGLE_CYCLE);
+        when(drawRepository.save(any(Draw.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        drawService.createDraw(groupId, currentUser);
+
+        // Assert: partindo de qualquer participante, a sequência passa por todos antes de voltar
+        Map<UUID, UUID> pairs = group.getDraw().getPairs();
+        UUID start = currentUser.getId();
+        UUID current = pairs.get(start);
+        int steps = 1;
+        while (!current.equals(start)) {
+            current = pairs.get(current);
+            steps++;
+        }
+        assertEquals(group.getParticipants().size(), steps);
+    }
+
+    @Test
+    void createDraw_RespectsExclusionRules() {
+        // Arrange: 0 e 1 são um casal, 2 não pode tirar o usuário atual
+        User first = participants.get(0);
+        User second = participants.get(1);
+        User third = participants.get(2);
+        group.getExclusions().add(new ExclusionRule(group, first.getId(), second.getId()));
+        group.getExclusions().add(new ExclusionRule(group, second.getId(), first.getId()));
+        group.getExclusions().add(new ExclusionRule(group, third.getId(), currentUser.getId()));
+        when(drawRepository.save(any(Draw.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        for (int attempt = 0; attempt < 20; attempt++) {
+            group.setDraw(null);
+
+            // Act
+            drawService.createDraw(groupId, currentUser);
+
+            // Assert
+            Map<UUID, UUID> pairs = group.getDraw().getPairs();
+            assertEquals(participants.size(), new HashSet<>(pairs.values()).size());
+            assertNotEquals(second.getId(), pairs.get(first.getId()));
+            assertNotEquals(first.getId(), pairs.get(second.getId()));
+            assertNotEquals(currentUser.getId(), pairs.get(third.getId()));
+        }
+    }
+
+    @Test
+    void createDraw_RecordsMetrics() {
+        // Arrange
+        group.getExclusions().add(new ExclusionRule(group, participants.get(0).getId(), participants.get(1).getId()));
+        when(drawRepository.save(any(Draw.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        drawService.createDraw(groupId, currentUser);
+
+        // Assert
+        assertEquals(1, meterRegistry.get("draw.generation")
+                .tag("size", "2-9")
+                .tag("mode", "RANDOM")
+                .tag("constrained", "true")
+                .timer().count());
+        assertEquals(1, meterRegistry.get("draw.pairing.repairs").summary().count());
+        assertEquals(1, meterRegistry.get("draw.mapping").timer().count());
+    }
+
+    @Test
+    void createDraw_ImpossibleExclusionRules() {
+        // Arrange: o usuário atual não pode tirar nenhum outro participante
+        for (User participant : participants) {
+            if (!participant.equals(currentUser)) {
+                group.getExclusions().add(new ExclusionRule(group, currentUser.getId(), participant.getId()));
+            }
+        }
+
+        // Act & Assert
+        assertThrows(DrawConstraintException.class, () -> drawService.createDraw(groupId, currentUser));
+        verify(drawRepository, never()).save(any(Draw.class));
+    }
+
+    @Test
+    void createDraw_SingleCycleWithExclusionRules() {
+        // Arrange: o reparo das restrições pode quebrar o ciclo, então a combinação é recusada
+        group.setPairingMode(PairingMode.SINGLE_CYCLE);
+        group.getExclusions().add(new ExclusionRule(group, participants.get(0).getId(), participants.get(1).getId()));
+
+        // Act & Assert
+        DrawConstraintException exception = assertThrows(DrawConstraintException.class,
+                () -> drawService.createDraw(groupId, currentUser));
+        assertEquals(DrawService.SINGLE_CYCLE_WITH_EXCLUSIONS, exception.getMessage());
+        verify(drawRepository, never()).save(any(Draw.class));
+    }
+
+    private FriendProjection friendProjection(User friend) {
+        FriendProjection projection = mock(FriendProjection.class);
+        when(projection.getFriendId()).thenReturn(friend.getId());
+        when(projection.getFriendUsername()).thenReturn(friend.getUsername());
+        when(projection.getWishItem()).thenReturn(friend.getWishItem());
+        return projection;
+    }
+
+    private PackedDrawProjection packedDraw(byte[] participantOrder, byte[] packedPairs) {
+        PackedDrawProjection projection = mock(PackedDrawProjection.class);
+        when(projection.getId()).thenReturn(drawId);
+        when(projection.getParticipantOrder()).thenReturn(participantOrder);
+        when(projection.getPackedPairs()).thenReturn(packedPairs);
+        return projection;
     }
 }
\ No newline at end of file
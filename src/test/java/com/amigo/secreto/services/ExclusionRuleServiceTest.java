@@ -0,0 +1,186 @@
+package com.amigo.secreto.services;
+
+import com.amigo.secreto.dtos.ExclusionRuleDTO;
+import com.amigo.secreto.dtos.ExclusionRuleRequestDTO;
+import com.amigo.secreto.models.Draw;
+import com.amigo.secreto.models.ExclusionRule;
+import com.amigo.secreto.models.Group;
+import com.amigo.secreto.models.PairingMode;
+import com.amigo.secreto.models.User;
+import com.amigo.secreto.repositories.DrawRepository;
+import com.amigo.secreto.repositories.ExclusionRuleRepository;
+import com.amigo.secreto.repositories.GroupRepository;
+import com.amigo.secreto.services.exceptions.DrawAlreadyDoneException;
+import com.amigo.secreto.services.exceptions.DrawConstraintException;
+import com.amigo.secreto.services.exceptions.ForbiddenException;
+import com.amigo.secreto.services.exceptions.ResourceNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ExclusionRuleServiceTest {
+
+    @Mock
+    private ExclusionRuleRepository exclusionRuleRepository;
+
+    @Mock
+    private GroupRepository groupRepository;
+
+    @Mock
+    private DrawRepository drawRepository;
+
+    @InjectMocks
+    private ExclusionRuleService exclusionRuleService;
+
+    private Group group;
+    private UUID groupId;
+    private User alice;
+    private User bob;
+    private User carol;
+
+    @BeforeEach
+    void setUp() {
+        alice = user("alice");
+        bob = user("bob");
+        carol = user("carol");
+
+        groupId = UUID.randomUUID();
+        group = new Group();
+        group.setId(groupId);
+        group.setOwnerId(alice.getId());
+        group.setParticipants(new LinkedHashSet<>(List.of(alice, bob, carol)));
+
+        when(groupRepository.findForDrawById(groupId)).thenReturn(Optional.of(group));
+        when(exclusionRuleRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void addShouldCreateBothDirectionsWhenMutual() {
+        List<ExclusionRuleDTO> result = exclusionRuleService.add(groupId,
+                new ExclusionRuleRequestDTO(alice.getId(), bob.getId(), true), alice);
+
+        assertEquals(2, result.size());
+        assertEquals(alice.getId(), result.get(0).giverId());
+        assertEquals(bob.getId(), result.get(0).receiverId());
+        assertEquals(bob.getId(), result.get(1).giverId());
+        assertEquals(alice.getId(), result.get(1).receiverId());
+        assertEquals(2, group.getExclusions().size());
+    }
+
+    @Test
+    void addShouldSkipExistingRule() {
+        group.getExclusions().add(new ExclusionRule(group, alice.getId(), bob.getId()));
+
+        List<ExclusionRuleDTO> result = exclusionRuleService.add(groupId,
+                new ExclusionRuleRequestDTO(alice.getId(), bob.getId(), false), alice);
+
+        assertTrue(result.isEmpty());
+    }
+
+    @Test
+    void addShouldRejectSelfExclusion() {
+        assertThrows(IllegalArgumentException.class, () -> exclusionRuleService.add(groupId,
+                new ExclusionRuleRequestDTO(alice.getId(), alice.getId(), false), alice));
+    }
+
+    @Test
+    void addShouldRejectUserOutsideGroup() {
+        UUID outsider = UUID.randomUUID();
+
+        ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class,
+                () -> exclusionRuleService.add(groupId, new ExclusionRuleRequestDTO(alice.getId(), outsider, false), alice));
+        assertEquals("Usuário de id " + outsider + " não participa do grupo", exception.getMessage());
+    }
+
+    @Test
+    void addShouldRejectDrawnGroup() {
+        group.setDraw(new Draw());
+
+        assertThrows(DrawAlreadyDoneException.class, () -> exclusionRuleService.add(groupId,
+                new ExclusionRuleRequestDTO(alice.getId(), bob.getId(), false), alice));
+        verify(exclusionRuleRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void addShouldRejectSingleCycleGroup() {
+        group.setPairingMode(PairingMode.SINGLE_CYCLE);
+
+        assertThrows(DrawConstraintException.class, () -> exclusionRuleService.add(groupId,
+                new ExclusionRuleRequestDTO(alice.getId(), bob.getId(), false), alice));
+        assertThrows(DrawConstraintException.class, () -> exclusionRuleService.importFromDraw(groupId, UUID.randomUUID(), alice));
+        verify(exclusionRuleRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void importFromDrawShouldOnlyKeepPairsBetweenCurrentParticipants() {
+        UUID drawId = UUID.randomUUID();
+        UUID formerParticipant = UUID.randomUUID();
+        Draw previous = new Draw();
+        previous.setPairs(new HashMap<>(Map.of(
+                alice.getId(), bob.getId(),
+                bob.getId(), formerParticipant,
+                formerParticipant, carol.getId(),
+                carol.getId(), alice.getId()
+        )));
+        when(drawRepository.findById(drawId)).thenReturn(Optional.of(previous));
+
+        List<ExclusionRuleDTO> result = exclusionRuleService.importFromDraw(groupId, drawId, alice);
+
+        assertEquals(2, result.size());
+        Set<List<UUID>> imported = new HashSet<>();
+        result.forEach(rule -> imported.add(List.of(rule.giverId(), rule.receiverId())));
+        assertTrue(imported.contains(List.of(alice.getId(), bob.getId())));
+        assertTrue(imported.contains(List.of(carol.getId(), alice.getId())));
+    }
+
+    @Test
+    void deleteShouldFailWhenRuleIsFromAnotherGroup() {
+        UUID ruleId = UUID.randomUUID();
+        when(exclusionRuleRepository.findByIdAndGroupId(ruleId, groupId)).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> exclusionRuleService.delete(groupId, ruleId, alice));
+        verify(exclusionRuleRepository, never()).delete(any());
+    }
+
+    @Test
+    void changesShouldBeRestrictedToGroupOwner() {
+        UUID ruleId = UUID.randomUUID();
+        UUID drawId = UUID.randomUUID();
+
+        assertThrows(ForbiddenException.class, () -> exclusionRuleService.add(groupId,
+                new ExclusionRuleRequestDTO(alice.getId(), bob.getId(), false), bob));
+        assertThrows(ForbiddenException.class, () -> exclusionRuleService.importFromDraw(groupId, drawId, bob));
+        assertThrows(ForbiddenException.class, () -> exclusionRuleService.delete(groupId, ruleId, bob));
+
+        verify(exclusionRuleRepository, never()).saveAll(anyList());
+        verify(exclusionRuleRepository, never()).delete(any());
+    }
+
+    @Test
+    void deleteShouldRejectDrawnGroup() {
+        group.setDraw(new Draw());
+
+        assertThrows(DrawAlreadyDoneException.class, () -> exclusionRuleService.delete(groupId, UUID.randomUUID(), alice));
+        verify(exclusionRuleRepository, never()).delete(any());
+    }
+
+    private static User user(String username) {
+        User user = new User();
+        user.setId(UUID.randomUUID());
+        user.setUsername(username);
+        return user;
+    }
+}
@@ -1,8 +1,15 @@
 package com.amigo.secreto.services;
 
+import com.amigo.secreto.dtos.BulkInviteResponseDTO;
+import com.amigo.secreto.dtos.BulkInviteResultDTO;
+import com.amigo.secreto.dtos.CursorPageDTO;
+import com.amigo.secreto.dtos.GroupSummaryDTO;
+import com.amigo.secreto.dtos.ParticipantDTO;
 import com.amigo.secreto.models.Group;
 import com.amigo.secreto.models.User;
+import com.amigo.secreto.repositories.GroupMembershipJdbcRepository;
 import com.amigo.secreto.repositories.GroupRepository;
+import com.amigo.secreto.repositories.UserAssignmentJdbcRepository;
 import com.amigo.secreto.repositories.UserRepository;
 import com.amigo.secreto.services.exceptions.ResourceNotFoundException;
 import com.amigo.secreto.services.exceptions.UserAlreadyInGroupException;
@@ -12,6 +19,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 
 import java.util.*;
 
@@ -27,6 +35,12 @@ class GroupServiceTest {
     @Mock
     private GroupRepository groupRepository;
 
+    @Mock
+    private GroupMembershipJdbcRepository groupMembershipJdbcRepository;
+
+    @Mock
+    private UserAssignmentJdbcRepository userAssignmentJdbcRepository;
+
     @InjectMocks
     private GroupService groupService;
 
@@ -44,7 +58,7 @@ class GroupServiceTest {
         group.setId(UUID.randomUUID());
         group.setOwnerId(owner.getId());
         group.setName("Amigo Secreto");
-        group.setParticipants(new ArrayList<>());
+        group.setParticipants(new HashSet<>());
         group.setDraw(null);
     }
 
@@ -73,16 +87,61 @@ class GroupServiceTest {
     }
 
     @Test
-    void findAllShouldReturnListOfGroups() {
-        List<Group> groups = Arrays.asList(group);
-        when(groupRepository.findAll()).thenReturn(groups);
+    void findAllShouldReturnListOfGroupSummaries() {
+        GroupSummaryDTO summary = summaryOf(group);
+        when(groupRepository.findAllSummaries()).thenReturn(List.of(summary));
 
-        List<Group> result = groupService.findAll();
+        List<GroupSummaryDTO> result = groupService.findAll();
 
         assertNotNull(result);
         assertEquals(1, result.size());
-        assertEquals(group.getId(), result.get(0).getId());
-        verify(groupRepository).findAll();
+        assertEquals(group.getId(), result.get(0).id());
+        verify(groupRepository).findAllSummaries();
+        verify(groupRepository, never()).findAll();
+    }
+
+    @Test
+    void findPageShouldReturnNextCursorWhenThereAreMoreGroups() {
+        GroupSummaryDTO first = summaryOf(group);
+        GroupSummaryDTO second = new GroupSummaryDTO(UUID.randomUUID(), "Outro", owner.getId(), null, 1, false);
+        when(groupRepository.findSummaries(Limit.of(2))).thenReturn(Arrays.asList(first, second));
+
+        CursorPageDTO<GroupSummaryDTO> page = groupService.findPage(null, 1);
+
+        assertEquals(1, page.content().size());
+        assertEquals(group.getId(), page.nextCursor());
+    }
+
+    @Test
+    void findPageShouldStartAfterCursorAndEndWithoutNextCursor() {
+        UUID cursor = UUID.randomUUID();
+        GroupSummaryDTO summary = summaryOf(group);
+        when(groupRepository.findSummariesAfter(cursor, Limit.of(51))).thenReturn(List.of(summary));
+
+        CursorPageDTO<GroupSummaryDTO> page = groupService.findPage(cursor, 50);
+
+        assertEquals(List.of(summary), page.content());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    void findParticipantsShouldReturnIdAndUsername() {
+        ParticipantDTO participant = new ParticipantDTO(owner.getId(), owner.getUsername());
+        when(groupRepository.existsById(group.getId())).thenReturn(true);
+        when(groupRepository.findParticipants(group.getId())).thenReturn(List.of(participant));
+
+        List<ParticipantDTO> result = groupService.findParticipants(group.getId());
+
+        assertEquals(List.of(participant), result);
+    }
+
+    @Test
+    void findParticipantsShouldThrowResourceNotFoundExceptionWhenGroupDoesNotExist() {
+        when(groupRepository.existsById(group.getId())).thenReturn(false);
+
+        ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class, () -> groupService.findParticipants(group.getId()));
+        assertEquals("Grupo de id " + group.getId() + " não encontrado.", exception.getMessage());
+        verify(groupRepository, never()).findParticipants(any());
     }
 
     @Test
@@ -122,6 +181,7 @@ class GroupServiceTest {
         assertNotNull(updatedGroup);
         assertEquals(group.getId(), updatedGroup.getId());
         verify(groupRepository).save(any(Group.class));
+        verify(userAssignmentJdbcRepository).updateGroupName(group.getId(), group.getName());
     }
 
     @Test
@@ -132,6 +192,7 @@ class GroupServiceTest {
         groupService.deleteById(group.getId());
 
         verify(groupRepository).findById(group.getId());
+        verify(userAssignmentJdbcRepository).deleteByGroupId(group.getId());
         verify(groupRepository).delete(group);
     }
 
@@ -146,66 +207,119 @@ class GroupServiceTest {
     }
 
     @Test
-    void inviteShouldAddUserToGroupWhenUserAndGroupExist() {
-        User user = new User();
-        user.setId(UUID.randomUUID());
-        user.setUsername("Bob");
-        user.setEmail("bob@example.com");
+    void inviteShouldInsertMembershipWhenUserAndGroupExist() {
+        UUID userId = UUID.randomUUID();
+        GroupSummaryDTO summary = new GroupSummaryDTO(group.getId(), group.getName(), owner.getId(), group.getCreatedAt(), 2, false);
 
-        when(groupRepository.findById(group.getId())).thenReturn(Optional.of(group));
-        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
-        when(groupRepository.save(any(Group.class))).thenAnswer(invocation -> invocation.getArgument(0)); // Retorna o mesmo objeto passado
+        when(groupRepository.existsById(group.getId())).thenReturn(true);
+        when(userRepository.existsById(userId)).thenReturn(true);
+        when(groupRepository.existsParticipant(group.getId(), userId)).thenReturn(false);
+        when(groupRepository.findSummaryById(group.getId())).thenReturn(Optional.of(summary));
 
-        Group updatedGroup = groupService.invite(user.getId(), group.getId());
+        GroupSummaryDTO result = groupService.invite(userId, group.getId());
 
-        assertNotNull(updatedGroup);
-        assertTrue(updatedGroup.getParticipants().contains(user)); // Verifica se o usuário foi adicionado ao grupo
-        verify(groupRepository).findById(group.getId());
-        verify(userRepository).findById(user.getId());
-        verify(groupRepository).save(any(Group.class));
+        assertEquals(summary, result);
+        verify(groupRepository).addParticipant(group.getId(), userId);
+        verify(groupRepository, never()).findById(any());
+        verify(groupRepository, never()).save(any(Group.class));
     }
 
     @Test
     void inviteShouldThrowResourceNotFoundExceptionWhenGroupDoesNotExist() {
         UUID groupId = UUID.randomUUID();
         UUID userId = UUID.randomUUID();
-        when(groupRepository.findById(groupId)).thenReturn(Optional.empty());
+        when(groupRepository.existsById(groupId)).thenReturn(false);
 
         ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class, () -> groupService.invite(userId, groupId));
         assertEquals("Grupo de id " + groupId + " não encontrado.", exception.getMessage());
-        verify(groupRepository).findById(groupId);
-        verify(userRepository, never()).findById(userId);
-        verify(groupRepository, never()).save(any(Group.class));
+        verify(groupRepository).existsById(groupId);
+        verify(userRepository, never()).existsById(userId);
+        verify(groupRepository, never()).addParticipant(any(), any());
     }
 
     @Test
     void inviteShouldThrowResourceNotFoundExceptionWhenUserDoesNotExist() {
         UUID userId = UUID.randomUUID();
-        when(groupRepository.findById(group.getId())).thenReturn(Optional.of(group));
-        when(userRepository.findById(userId)).thenReturn(Optional.empty());
+        when(groupRepository.existsById(group.getId())).thenReturn(true);
+        when(userRepository.existsById(userId)).thenReturn(false);
 
         ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class, () -> groupService.invite(userId, group.getId()));
         assertEquals("Usuário de id " + userId + " não encontrado.", exception.getMessage());
-        verify(groupRepository).findById(group.getId());
-        verify(userRepository).findById(userId);
-        verify(groupRepository, never()).save(any(Group.class));
+        verify(groupRepository).existsById(group.getId());
+        verify(userRepository).existsById(userId);
+        verify(groupRepository, never()).addParticipant(any(), any());
     }
 
     @Test
     void inviteShouldThrowUserAlreadyInGroupExceptionWhenUserAlreadyInGroup() {
-        User user = new User();
-        user.setId(UUID.randomUUID());
-        user.setUsername("Bob");
-        user.setEmail("bob@example.com");
-
-        group.getParticipants().add(user);
-        when(groupRepository.findById(group.getId())).thenReturn(Optional.of(group));
-        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+        UUID userId = UUID.randomUUID();
+        when(groupRepository.existsById(group.getId())).thenReturn(true);
+        when(userRepository.existsById(userId)).thenReturn(true);
+        when(groupRepository.existsParticipant(group.getId(), userId)).thenReturn(true);
 
-        UserAlreadyInGroupException exception = assertThrows(UserAlreadyInGroupException.class, () -> groupService.invite(user.getId(), group.getId()));
+        UserAlreadyInGroupException exception = assertThrows(UserAlreadyInGroupException.class, () -> groupService.invite(userId, group.getId()));
         assertEquals("Usuário já está no grupo.", exception.getMessage());
-        verify(groupRepository).findById(group.getId());
-        verify(userRepository).findById(user.getId());
-        verify(groupRepository, never()).save(any(Group.class));
+        verify(groupRepository).existsParticipant(group.getId(), userId);
+        verify(groupRepository, never()).addParticipant(any(), any());
+    }
+
+    @Test
+    void inviteAllShouldReportResultPerUser() {
+        UUID newUser = UUID.randomUUID();
+        UUID member = UUID.randomUUID();
+        UUID missing = UUID.randomUUID();
+        List<UUID> requested = List.of(newUser, member, missing, newUser);
+
+        when(groupRepository.existsById(group.getId())).thenReturn(true);
+        when(groupMembershipJdbcRepository.findExistingUserIds(any())).thenReturn(Set.of(newUser, member));
+        when(groupMembershipJdbcRepository.findMemberIds(eq(group.getId()), any())).thenReturn(Set.of(member));
+        when(groupMembershipJdbcRepository.insertMembers(group.getId(), List.of(newUser))).thenReturn(Set.of(newUser));
+
+        BulkInviteResponseDTO result = groupService.inviteAll(group.getId(), requested);
+
+        assertEquals(1, result.added());
+        assertEquals(1, result.alreadyInGroup());
+        assertEquals(1, result.notFound());
+        assertEquals(List.of(
+                new BulkInviteResultDTO(newUser, BulkInviteResultDTO.Status.ADDED),
+                new BulkInviteResultDTO(member, BulkInviteResultDTO.Status.ALREADY_IN_GROUP),
+                new BulkInviteResultDTO(missing, BulkInviteResultDTO.Status.NOT_FOUND)
+        ), result.results());
+    }
+
+    @Test
+    void inviteAllShouldReportConcurrentMembershipAsAlreadyInGroup() {
+        UUID newUser = UUID.randomUUID();
+        UUID joinedConcurrently = UUID.randomUUID();
+        List<UUID> requested = List.of(newUser, joinedConcurrently);
+
+        // Entre a leitura dos membros e o INSERT, outro convite adicionou joinedConcurrently
+        when(groupRepository.existsById(group.getId())).thenReturn(true);
+        when(groupMembershipJdbcRepository.findExistingUserIds(any())).thenReturn(Set.of(newUser, joinedConcurrently));
+        when(groupMembershipJdbcRepository.findMemberIds(eq(group.getId()), any())).thenReturn(Set.of());
+        when(groupMembershipJdbcRepository.insertMembers(group.getId(), requested)).thenReturn(Set.of(newUser));
+
+        BulkInviteResponseDTO result = groupService.inviteAll(group.getId(), requested);
+
+        assertEquals(1, result.added());
+        assertEquals(1, result.alreadyInGroup());
+        assertEquals(List.of(
+                new BulkInviteResultDTO(newUser, BulkInviteResultDTO.Status.ADDED),
+                new BulkInviteResultDTO(joinedConcurrently, BulkInviteResultDTO.Status.ALREADY_IN_GROUP)
+        ), result.results());
+    }
+
+    @Test
+    void inviteAllShouldThrowResourceNotFoundExceptionWhenGroupDoesNotExist() {
+        when(groupRepository.existsById(group.getId())).thenReturn(false);
+
+        ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class,
+                () -> groupService.inviteAll(group.getId(), List.of(UUID.randomUUID())));
+        assertEquals("Grupo de id " + group.getId() + " não encontrado.", exception.getMessage());
+        verify(groupMembershipJdbcRepository, never()).insertMembers(any(), any());
+    }
+
+    private GroupSummaryDTO summaryOf(Group group) {
+        return new GroupSummaryDTO(group.getId(), group.getName(), group.getOwnerId(), group.getCreatedAt(), group.getParticipants().size(), false);
     }
 }
\ No newline at end of file
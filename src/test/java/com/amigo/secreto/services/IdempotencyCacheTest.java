@@ -0,0 +1,82 @@
+package com.amigo.secreto.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyCacheTest {
+
+    private IdempotencyCache idempotencyCache;
+
+    @BeforeEach
+    void setUp() {
+        idempotencyCache = new IdempotencyCache(100, Duration.ofMinutes(5));
+    }
+
+    @Test
+    void executeShouldReturnFirstResultForSameKey() {
+        AtomicInteger calls = new AtomicInteger();
+
+        String first = idempotencyCache.execute("user:group:key", () -> "sorteio-" + calls.incrementAndGet());
+        String second = idempotencyCache.execute("user:group:key", () -> "sorteio-" + calls.incrementAndGet());
+
+        assertEquals("sorteio-1", first);
+        assertEquals("sorteio-1", second);
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void executeShouldRunAgainForDifferentKey() {
+        AtomicInteger calls = new AtomicInteger();
+
+        idempotencyCache.execute("user:group:key-1", calls::incrementAndGet);
+        idempotencyCache.execute("user:group:key-2", calls::incrementAndGet);
+
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void executeShouldNotKeepFailures() {
+        assertThrows(IllegalStateException.class, () -> idempotencyCache.execute("user:group:key", () -> {
+            throw new IllegalStateException("falhou");
+        }));
+
+        String result = idempotencyCache.execute("user:group:key", () -> "sorteio");
+
+        assertEquals("sorteio", result);
+    }
+
+    @Test
+    void executeShouldNotBlockOtherKeysWhileActionRuns() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<String> slow = CompletableFuture.supplyAsync(() -> idempotencyCache.execute("user:group:slow", () -> {
+            started.countDown();
+            await(release);
+            return "lento";
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // Enquanto o primeiro sorteio está em andamento, outra chave executa normalmente
+        assertEquals("rapido", idempotencyCache.execute("user:group:fast", () -> "rapido"));
+
+        release.countDown();
+        assertEquals("lento", slow.get(5, TimeUnit.SECONDS));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
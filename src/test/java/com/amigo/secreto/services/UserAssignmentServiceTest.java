@@ -0,0 +1,134 @@
+package com.amigo.secreto.services;
+
+import com.amigo.secreto.models.Draw;
+import com.amigo.secreto.models.Group;
+import com.amigo.secreto.models.PackedPairs;
+import com.amigo.secreto.models.User;
+import com.amigo.secreto.models.UserAssignment;
+import com.amigo.secreto.repositories.DrawRepository;
+import com.amigo.secreto.repositories.UserAssignmentJdbcRepository;
+import com.amigo.secreto.repositories.UserAssignmentRepository;
+import com.amigo.secreto.services.events.DrawCompletedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class UserAssignmentServiceTest {
+
+    @Mock
+    private UserAssignmentRepository userAssignmentRepository;
+
+    @Mock
+    private UserAssignmentJdbcRepository userAssignmentJdbcRepository;
+
+    @Mock
+    private DrawRepository drawRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private UserAssignmentService userAssignmentService;
+
+    private Group group;
+    private User alice;
+    private User bob;
+    private User carol;
+
+    @BeforeEach
+    void setUp() {
+        alice = user("alice", "livro");
+        bob = user("bob", null);
+        carol = user("carol", "caneca");
+
+        group = new Group();
+        group.setId(UUID.randomUUID());
+        group.setName("Família");
+        group.setParticipants(new LinkedHashSet<>(List.of(alice, bob, carol)));
+    }
+
+    @Test
+    void drawCompletedShouldInsertOneAssignmentPerGiver() {
+        Draw draw = draw(Map.of(alice.getId(), bob.getId(), bob.getId(), carol.getId(), carol.getId(), alice.getId()));
+        when(drawRepository.findById(draw.getId())).thenReturn(Optional.of(draw));
+
+        userAssignmentService.onDrawCompleted(new DrawCompletedEvent(group.getId(), draw.getId()));
+
+        Map<UUID, UserAssignment> byGiver = capturedByGiver();
+        assertEquals(3, byGiver.size());
+
+        UserAssignment aliceAssignment = byGiver.get(alice.getId());
+        assertEquals(group.getId(), aliceAssignment.getGroupId());
+        assertEquals("Família", aliceAssignment.getGroupName());
+        assertEquals(draw.getId(), aliceAssignment.getDrawId());
+        assertEquals(bob.getId(), aliceAssignment.getReceiverId());
+        assertEquals("bob", aliceAssignment.getReceiverUsername());
+        assertNull(aliceAssignment.getWishItem());
+        assertEquals("caneca", byGiver.get(bob.getId()).getWishItem());
+    }
+
+    @Test
+    void drawCompletedShouldReadPackedDraws() {
+        List<UUID> sortedIds = group.getParticipants().stream().map(User::getId).sorted().toList();
+        Draw draw = draw(Map.of());
+        draw.setPacked(PackedPairs.encode(sortedIds, new int[]{1, 2, 0}));
+        when(drawRepository.findById(draw.getId())).thenReturn(Optional.of(draw));
+
+        userAssignmentService.onDrawCompleted(new DrawCompletedEvent(group.getId(), draw.getId()));
+
+        Map<UUID, UserAssignment> byGiver = capturedByGiver();
+        assertEquals(3, byGiver.size());
+        assertEquals(sortedIds.get(1), byGiver.get(sortedIds.get(0)).getReceiverId());
+    }
+
+    @Test
+    void drawCompletedShouldSkipParticipantsThatLeftTheGroup() {
+        User gone = user("gone", null);
+        Draw draw = draw(Map.of(alice.getId(), gone.getId(), gone.getId(), alice.getId(), bob.getId(), carol.getId()));
+        when(drawRepository.findById(draw.getId())).thenReturn(Optional.of(draw));
+
+        userAssignmentService.onDrawCompleted(new DrawCompletedEvent(group.getId(), draw.getId()));
+
+        assertEquals(Set.of(bob.getId()), capturedByGiver().keySet());
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<UUID, UserAssignment> capturedByGiver() {
+        ArgumentCaptor<List<UserAssignment>> captor = ArgumentCaptor.forClass(List.class);
+        verify(userAssignmentJdbcRepository).insertAll(captor.capture());
+
+        Map<UUID, UserAssignment> byGiver = new HashMap<>();
+        captor.getValue().forEach(assignment -> byGiver.put(assignment.getUserId(), assignment));
+        return byGiver;
+    }
+
+    private Draw draw(Map<UUID, UUID> pairs) {
+        Draw draw = new Draw();
+        draw.setId(UUID.randomUUID());
+        draw.setGroup(group);
+        draw.setPairs(new HashMap<>(pairs));
+        return draw;
+    }
+
+    private static User user(String username, String wishItem) {
+        User user = new User();
+        user.setId(UUID.randomUUID());
+        user.setUsername(username);
+        user.setWishItem(wishItem);
+        return user;
+    }
+}
@@ -1,19 +1,29 @@
 package com.amigo.secreto.services;
 
+import com.amigo.secreto.dtos.CursorPageDTO;
+import com.amigo.secreto.dtos.UserSummaryDTO;
 import com.amigo.secreto.models.User;
+import com.amigo.secreto.repositories.UserAssignmentJdbcRepository;
 import com.amigo.secreto.repositories.UserRepository;
+import com.amigo.secreto.services.events.UserChangedEvent;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -25,6 +35,12 @@ class UserServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private UserAssignmentJdbcRepository userAssignmentJdbcRepository;
+
     @Test
     @DisplayName("Update user successfully")
     void userUpdateTest() {
@@ -41,6 +57,8 @@ class UserServiceTest {
         assertEquals("pastel", result.getWishItem());
 
         verify(userRepository, times(1)).save(updatedUser);
+        verify(userAssignmentJdbcRepository).updateReceiver(userId, "João Silva", "pastel");
+        verify(eventPublisher).publishEvent(new UserChangedEvent(userId));
     }
 
     @Test
@@ -54,5 +72,34 @@ class UserServiceTest {
         userService.delete(userId);
 
         verify(userRepository, times(1)).deleteById(userId);
+        verify(userAssignmentJdbcRepository).deleteByUserId(userId);
+        verify(eventPublisher).publishEvent(new UserChangedEvent(userId));
+    }
+
+    @Test
+    @DisplayName("Should page users as summaries without credentials")
+    void findPageTest() {
+        UUID cursor = UUID.randomUUID();
+        UserSummaryDTO summary = new UserSummaryDTO(UUID.randomUUID(), "Joao", "coxinha");
+        when(userRepository.findSummariesAfter(cursor, Limit.of(51))).thenReturn(List.of(summary));
+
+        CursorPageDTO<UserSummaryDTO> page = userService.findPage(cursor, 50);
+
+        assertEquals(List.of(summary), page.content());
+        assertNull(page.nextCursor());
+        verify(userRepository, never()).findAll();
+    }
+
+    @Test
+    @DisplayName("Should stream users as summaries")
+    void streamAllTest() {
+        UserSummaryDTO first = new UserSummaryDTO(UUID.randomUUID(), "Joao", null);
+        UserSummaryDTO second = new UserSummaryDTO(UUID.randomUUID(), "Maria", "pastel");
+        when(userRepository.streamSummaries()).thenReturn(Stream.of(first, second));
+
+        List<UserSummaryDTO> streamed = new ArrayList<>();
+        userService.streamAll(streamed::add);
+
+        assertEquals(List.of(first, second), streamed);
     }
 }
@@ -0,0 +1,108 @@
+package com.amigo.secreto.services;
+
+import com.amigo.secreto.dtos.UserStatsDTO;
+import com.amigo.secreto.repositories.UserRepository;
+import com.amigo.secreto.repositories.projections.UserStatsProjection;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserStatsServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private UserStatsProjection projection;
+
+    private UUID userId;
+
+    @BeforeEach
+    void setUp() {
+        userId = UUID.randomUUID();
+        when(projection.getParticipatingGroups()).thenReturn(3L);
+        when(projection.getParticipatingDraws()).thenReturn(1L);
+        when(projection.getPendingDraws()).thenReturn(2L);
+        when(projection.getOwnedGroups()).thenReturn(2L);
+        when(userRepository.findStats(userId)).thenReturn(projection);
+    }
+
+    @Test
+    void findByUserShouldQueryOnceWhileCached() {
+        UserStatsService userStatsService = new UserStatsService(userRepository, 100, Duration.ofSeconds(10));
+
+        assertEquals(new UserStatsDTO(3, 1, 2, 2), userStatsService.findByUser(userId));
+        assertEquals(new UserStatsDTO(3, 1, 2, 2), userStatsService.findByUser(userId));
+
+        verify(userRepository, times(1)).findStats(userId);
+    }
+
+    @Test
+    void findByUserShouldNotHoldCacheLockWhileQuerying() throws Exception {
+        UUID slowUserId = UUID.randomUUID();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        when(userRepository.findStats(slowUserId)).thenAnswer(invocation -> {
+            if (calls.getAndIncrement() == 0) {
+                started.countDown();
+                await(release);
+            }
+            return projection;
+        });
+        UserStatsService userStatsService = new UserStatsService(userRepository, 100, Duration.ofSeconds(10));
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            CompletableFuture<UserStatsDTO> slow =
+                    CompletableFuture.supplyAsync(() -> userStatsService.findByUser(slowUserId), executor);
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            // Com a primeira consulta parada no banco, outras leituras da mesma entrada não ficam esperando por ela
+            UserStatsDTO concurrent = CompletableFuture
+                    .supplyAsync(() -> userStatsService.findByUser(slowUserId), executor)
+                    .get(1, TimeUnit.SECONDS);
+            assertEquals(new UserStatsDTO(3, 1, 2, 2), concurrent);
+            assertEquals(new UserStatsDTO(3, 1, 2, 2), userStatsService.findByUser(userId));
+
+            release.countDown();
+            assertEquals(new UserStatsDTO(3, 1, 2, 2), slow.get(5, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void findByUserShouldAlwaysQueryWhenCacheIsDisabled() {
+        UserStatsService userStatsService = new UserStatsService(userRepository, 100, Duration.ZERO);
+
+        userStatsService.findByUser(userId);
+        userStatsService.findByUser(userId);
+
+        verify(userRepository, times(2)).findStats(userId);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
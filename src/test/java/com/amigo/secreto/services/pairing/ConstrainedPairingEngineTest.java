@@ -0,0 +1,97 @@
+package com.amigo.secreto.services.pairing;
+
+import com.amigo.secreto.services.exceptions.DrawConstraintException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConstrainedPairingEngineTest {
+
+    private final RandomDerangementPairingEngine seedEngine = new RandomDerangementPairingEngine(new Random(7));
+
+    @ParameterizedTest
+    @ValueSource(ints = {4, 10, 1000, 20_000})
+    void repairShouldRespectCouples(int size) {
+        ConstrainedPairingEngine engine = new ConstrainedPairingEngine(new Random(size));
+        BitSet[] forbidden = new BitSet[size];
+        for (int i = 0; i + 1 < size; i += 2) {
+            forbid(forbidden, i, i + 1);
+            forbid(forbidden, i + 1, i);
+        }
+
+        int[] receivers = engine.repair(seedEngine.generate(size), forbidden);
+
+        assertValid(receivers, forbidden);
+    }
+
+    @Test
+    void repairShouldHandleDenseRandomRestrictions() {
+        int size = 500;
+        Random random = new Random(42);
+        BitSet[] forbidden = new BitSet[size];
+        for (int giver = 0; giver < size; giver++) {
+            for (int i = 0; i < size / 2; i++) {
+                forbid(forbidden, giver, random.nextInt(size));
+            }
+        }
+
+        int[] receivers = new ConstrainedPairingEngine(random).repair(seedEngine.generate(size), forbidden);
+
+        assertValid(receivers, forbidden);
+    }
+
+    @Test
+    void repairShouldKeepSeedWhenItIsAlreadyValid() {
+        int[] seed = {1, 2, 3, 0};
+        BitSet[] forbidden = new BitSet[4];
+        forbid(forbidden, 0, 2);
+
+        assertArrayEquals(seed, new ConstrainedPairingEngine().repair(seed, forbidden));
+    }
+
+    @Test
+    void repairShouldFailWhenGiverHasNoOption() {
+        BitSet[] forbidden = new BitSet[3];
+        forbid(forbidden, 0, 1);
+        forbid(forbidden, 0, 2);
+
+        assertThrows(DrawConstraintException.class,
+                () -> new ConstrainedPairingEngine().repair(seedEngine.generate(3), forbidden));
+    }
+
+    @Test
+    void repairShouldFailWhenNoPerfectMatchingExists() {
+        // 0 e 1 só podem tirar o 2
+        BitSet[] forbidden = new BitSet[4];
+        forbid(forbidden, 0, 1);
+        forbid(forbidden, 0, 3);
+        forbid(forbidden, 1, 0);
+        forbid(forbidden, 1, 3);
+
+        assertThrows(DrawConstraintException.class,
+                () -> new ConstrainedPairingEngine().repair(seedEngine.generate(4), forbidden));
+    }
+
+    private static void forbid(BitSet[] forbidden, int giver, int receiver) {
+        if (forbidden[giver] == null) {
+            forbidden[giver] = new BitSet();
+        }
+        forbidden[giver].set(receiver);
+    }
+
+    private static void assertValid(int[] receivers, BitSet[] forbidden) {
+        boolean[] received = new boolean[receivers.length];
+        for (int giver = 0; giver < receivers.length; giver++) {
+            int receiver = receivers[giver];
+            assertNotEquals(giver, receiver, "Participante não pode tirar a si mesmo");
+            assertFalse(forbidden[giver] != null && forbidden[giver].get(receiver), "Restrição desrespeitada");
+            assertFalse(received[receiver], "Participante sorteado mais de uma vez");
+            received[receiver] = true;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.amigo.secreto.services.pairing;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RandomDerangementPairingEngineTest {
+
+    @ParameterizedTest
+    @ValueSource(ints = {2, 3, 4, 5, 17, 1000, 50_000})
+    void generateShouldReturnDerangement(int size) {
+        RandomDerangementPairingEngine engine = new RandomDerangementPairingEngine(new Random(size));
+
+        int[] receivers = engine.generate(size);
+
+        assertEquals(size, receivers.length);
+        boolean[] received = new boolean[size];
+        for (int giver = 0; giver < size; giver++) {
+            int receiver = receivers[giver];
+            assertNotEquals(giver, receiver, "Participante não pode tirar a si mesmo");
+            assertFalse(received[receiver], "Participante sorteado mais de uma vez");
+            received[receiver] = true;
+        }
+    }
+
+    @Test
+    void generateShouldRejectLessThanTwoParticipants() {
+        RandomDerangementPairingEngine engine = new RandomDerangementPairingEngine();
+
+        assertThrows(IllegalArgumentException.class, () -> engine.generate(1));
+    }
+}
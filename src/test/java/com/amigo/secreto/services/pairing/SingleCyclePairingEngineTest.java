@@ -0,0 +1,38 @@
+package com.amigo.secreto.services.pairing;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleCyclePairingEngineTest {
+
+    @ParameterizedTest
+    @ValueSource(ints = {2, 3, 4, 5, 17, 1000, 50_001})
+    void generateShouldReturnSingleCycle(int size) {
+        SingleCyclePairingEngine engine = new SingleCyclePairingEngine(new Random(size));
+
+        int[] receivers = engine.generate(size);
+
+        assertEquals(size, receivers.length);
+        boolean[] visited = new boolean[size];
+        int current = 0;
+        for (int step = 0; step < size; step++) {
+            assertFalse(visited[current], "Ciclo fechou antes de passar por todos os participantes");
+            visited[current] = true;
+            assertNotEquals(current, receivers[current], "Participante não pode tirar a si mesmo");
+            current = receivers[current];
+        }
+        assertEquals(0, current, "O ciclo deve voltar ao primeiro participante");
+    }
+
+    @Test
+    void generateShouldRejectLessThanTwoParticipants() {
+        SingleCyclePairingEngine engine = new SingleCyclePairingEngine();
+
+        assertThrows(IllegalArgumentException.class, () -> engine.generate(1));
+    }
+}